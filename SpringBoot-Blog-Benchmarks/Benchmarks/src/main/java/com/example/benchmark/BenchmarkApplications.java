@@ -0,0 +1,51 @@
+package com.example.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+//starts an application's context against its own in-memory H2 database in PostgreSQL mode (the datasource properties
+//can be overridden, the load test points them at postgres)
+//spring.config.name is changed so the application.properties of the jars (postgres urls, show-sql) are not loaded
+public final class BenchmarkApplications {
+
+    private BenchmarkApplications() {
+    }
+
+    //no web server, the benchmarks call the services directly
+    public static ConfigurableApplicationContext start(Class<?> application, String database, Map<String, Object> properties) {
+        return start(application, WebApplicationType.NONE, database, properties);
+    }
+
+    //with a web server on a free port (read it with port(context))
+    public static ConfigurableApplicationContext startServer(Class<?> application, String database, Map<String, Object> properties) {
+        Map<String, Object> serverProperties = new HashMap<>(properties);
+        serverProperties.putIfAbsent("server.port", "0");
+        return start(application, WebApplicationType.SERVLET, database, serverProperties);
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static ConfigurableApplicationContext start(Class<?> application, WebApplicationType webApplicationType,
+                                                        String database, Map<String, Object> properties) {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("spring.config.name", "benchmark");
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:" + database + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        defaults.put("spring.datasource.username", "sa");
+        defaults.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        defaults.put("spring.jpa.show-sql", "false");
+        defaults.put("logging.level.root", "WARN");
+        defaults.put("spring.main.banner-mode", "off");
+        defaults.putAll(properties);
+        return new SpringApplicationBuilder(application)
+                .web(webApplicationType)
+                .properties(defaults)
+                .run();
+    }
+}
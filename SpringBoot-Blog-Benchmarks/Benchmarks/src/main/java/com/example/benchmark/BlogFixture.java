@@ -0,0 +1,132 @@
+package com.example.benchmark;
+
+import com.example.blog.BlogApplication;
+import com.example.blog.model.Address;
+import com.example.blog.model.Blog;
+import com.example.blog.model.Comment;
+import com.example.blog.model.Tag;
+import com.example.blog.model.User;
+import com.example.blog.search.BlogSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+//the Blog application on H2, seeded with users, tags, blogs and comments made from a fixed word list
+//the seed is fixed so every run (and every fork) searches and maps the same data
+public class BlogFixture implements AutoCloseable {
+    public static final String[] WORDS = {"travel", "food", "spring", "java", "coffee", "mountain", "river", "city", "garden",
+            "music", "camera", "winter", "summer", "recipe", "design", "running", "book", "history", "ocean", "market"};
+
+    public static final int TOPICS = 100; //every title has one topic word, so a topic matches BLOGS / TOPICS blogs
+
+    private static final int USERS = 20;
+    private static final int TAGS = 50;
+    private static final int BLOGS = 2000;
+    private static final int COMMENTS_PER_BLOG = 5;
+    private static final int WORDS_PER_BLOG = 25; //content is a varchar(255)
+
+    private final ConfigurableApplicationContext context;
+    private final List<Integer> blogIds = new ArrayList<>();
+    private final List<Integer> tagIds = new ArrayList<>();
+
+    private BlogFixture(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static BlogFixture start(Map<String, Object> properties) {
+        Map<String, Object> blogProperties = new HashMap<>();
+        blogProperties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        blogProperties.put("blog.notifications.relay.enabled", "false"); //nothing is sent to the microservice
+        blogProperties.put("blog.likes.flush-ms", "0");
+        blogProperties.put("blog.sql.slow-query-ms", "60000");
+        blogProperties.put("blog.metrics.slow-call-ms", "60000");
+        blogProperties.putAll(properties);
+        BlogFixture fixture = new BlogFixture(BenchmarkApplications.start(BlogApplication.class, "blog", blogProperties));
+        fixture.seed();
+        //built at startup from an empty table, so build again now that the blogs exist (no-op when disabled)
+        fixture.getBean(BlogSearchIndex.class).build();
+        return fixture;
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        new TransactionTemplate(getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            EntityManager entityManager = getBean(EntityManager.class);
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < USERS; i++) {
+                Address address = new Address(null, i + " Main Street", "Austin", "Texas", "78701", "USA", null);
+                User user = new User(null, "user" + i, "user" + i + "@email.com", "password123", null, address, new ArrayList<>());
+                entityManager.persist(user);
+                users.add(user);
+            }
+            List<Tag> tags = new ArrayList<>();
+            for (int i = 0; i < TAGS; i++) {
+                Tag tag = new Tag(null, WORDS[i % WORDS.length] + i, "Tag Description", new ArrayList<>());
+                entityManager.persist(tag);
+                tags.add(tag);
+            }
+            for (int i = 0; i < BLOGS; i++) {
+                List<Tag> blogTags = new ArrayList<>();
+                for (int j = 0; j < 3; j++) {
+                    Tag tag = tags.get(random.nextInt(TAGS));
+                    if (!blogTags.contains(tag)) {
+                        blogTags.add(tag);
+                    }
+                }
+                Blog blog = new Blog(null, topic(i) + " " + sentence(random, 4), sentence(random, WORDS_PER_BLOG), random.nextInt(100), null, null,
+                        users.get(i % USERS), new ArrayList<>(), blogTags);
+                entityManager.persist(blog);
+                for (int j = 0; j < COMMENTS_PER_BLOG; j++) {
+                    entityManager.persist(new Comment(null, sentence(random, 12), 0, null, "user" + random.nextInt(USERS), blog));
+                }
+                if (i % 100 == 99) { //keep the persistence context small
+                    entityManager.flush();
+                    entityManager.clear();
+                    tags.replaceAll(tag -> entityManager.getReference(Tag.class, tag.getId()));
+                    users.replaceAll(user -> entityManager.getReference(User.class, user.getId()));
+                }
+            }
+            tags.forEach(tag -> tagIds.add(tag.getId()));
+            blogIds.addAll(entityManager.createQuery("select b.id from Blog b order by b.id", Integer.class).getResultList());
+        });
+    }
+
+    public static String topic(int i) {
+        return String.format("topic%02d", i % TOPICS); //fixed width, so a LIKE on one topic doesn't match another
+    }
+
+    public static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public List<Integer> getBlogIds() {
+        return blogIds;
+    }
+
+    public List<Integer> getTagIds() {
+        return tagIds;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.benchmark;
+
+import com.example.blog.model.Blog;
+import com.example.blog.model.Comment;
+import com.example.blog.model.Tag;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//Jackson serialization of a blog with its comments and tags (the body of GET /blogs/{id})
+//the mapper is built the way spring boot builds the application's one (java time module, no timestamps for dates)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlogSerializationBenchmark {
+    @Param({"0", "10", "200"})
+    public int comments;
+
+    private ObjectMapper objectMapper;
+    private Blog blog;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            tags.add(new Tag(i + 1, BlogFixture.WORDS[i], "Tag Description", new ArrayList<>()));
+        }
+        blog = new Blog(1, BlogFixture.sentence(random, 5), BlogFixture.sentence(random, 25), 12, now, now, null,
+                new ArrayList<>(), tags);
+        for (int i = 0; i < comments; i++) {
+            blog.getComments().add(new Comment(i + 1, BlogFixture.sentence(random, 12), 0, now, "user" + i, blog));
+        }
+        json = objectMapper.writeValueAsBytes(blog);
+    }
+
+    @Benchmark
+    public byte[] serializeBlog() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(blog);
+    }
+
+    @Benchmark
+    public Blog deserializeBlog() throws Exception {
+        return objectMapper.readValue(json, Blog.class);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.benchmark;
+
+import com.example.blog.dto.CommentDTO;
+import com.example.blog.dto.TagDTO;
+import com.example.blog.model.Comment;
+import com.example.blog.model.Tag;
+import com.example.blog.service.CommentService;
+import com.example.blog.service.TagService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//TagService.addTags and CommentService.createComments on H2, in inserts per second, with the id blocks of the entity
+//sequences (allocationSize 50, pooled-lo) and without them (blog.id.optimizer=none, hibernate lowers the increments to 1
+//so every insert waits for its own nextval)
+//tag names only go up, so every tag is a real insert; the tables grow during the run
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+    private static final int BATCH_SIZE = 100;
+    private static final int USERS = 20; //the fixture's user0 .. user19
+
+    @Param({"1", "50"})
+    public int allocationSize;
+
+    private final AtomicInteger tagNames = new AtomicInteger();
+    private final Random random = new Random(42);
+
+    private BlogFixture fixture;
+    private TagService tagService;
+    private CommentService commentService;
+    private List<Integer> blogIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = BlogFixture.start(Map.of("blog.id.optimizer", allocationSize == 1 ? "none" : "pooled-lo"));
+        tagService = fixture.getBean(TagService.class);
+        commentService = fixture.getBean(CommentService.class);
+        blogIds = fixture.getBlogIds();
+        //make sure the parameter reached hibernate, otherwise both runs would measure the same thing
+        Long increment = fixture.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT increment FROM information_schema.sequences WHERE sequence_name = 'seq_tag'", Long.class);
+        if (increment == null || increment != allocationSize) {
+            throw new IllegalStateException("seq_tag increments by " + increment + ", expected " + allocationSize);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Tag> addTags() throws Exception {
+        List<TagDTO> tagDTOs = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            tagDTOs.add(new TagDTO("bulktag" + tagNames.incrementAndGet(), "Tag Description", List.of()));
+        }
+        return tagService.addTags(tagDTOs);
+    }
+
+    //each comment also writes an outbox row (the relay is off, nothing is sent)
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Comment> createComments() throws Exception {
+        List<CommentDTO> commentDTOs = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            commentDTOs.add(new CommentDTO(BlogFixture.sentence(random, 12), 0, "user" + random.nextInt(USERS),
+                    blogIds.get(random.nextInt(blogIds.size()))));
+        }
+        return commentService.createComments(commentDTOs);
+    }
+}
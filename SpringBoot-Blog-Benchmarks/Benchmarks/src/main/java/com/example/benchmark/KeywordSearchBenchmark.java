@@ -0,0 +1,61 @@
+package com.example.benchmark;
+
+import com.example.blog.model.Blog;
+import com.example.blog.service.BlogService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//keyword search over the seeded blogs, with the LIKE query and with the in-memory search index
+//a common word matches most blogs, a topic word matches 20 of the 2000
+//(the postgres full-text index doesn't exist on H2, so searchBlogs runs the paged LIKE query)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeywordSearchBenchmark {
+    @Param({"false", "true"})
+    public String searchIndex; //blog.search.index.enabled
+
+    private BlogFixture fixture;
+    private BlogService blogService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = BlogFixture.start(Map.of("blog.search.index.enabled", searchIndex));
+        blogService = fixture.getBean(BlogService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    private static String commonWord() {
+        return BlogFixture.WORDS[ThreadLocalRandom.current().nextInt(BlogFixture.WORDS.length)];
+    }
+
+    private static String topic() {
+        return BlogFixture.topic(ThreadLocalRandom.current().nextInt(BlogFixture.TOPICS));
+    }
+
+    @Benchmark
+    public List<Blog> getBlogsByCommonWord() throws Exception {
+        return blogService.getBlogsByKeyword(commonWord());
+    }
+
+    @Benchmark
+    public List<Blog> getBlogsByTopic() throws Exception {
+        return blogService.getBlogsByKeyword(topic());
+    }
+
+    @Benchmark
+    public List<Blog> searchBlogsFirstPage() {
+        return blogService.searchBlogs(commonWord(), 0, 20);
+    }
+}
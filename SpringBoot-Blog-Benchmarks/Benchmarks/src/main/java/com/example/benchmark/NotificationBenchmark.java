@@ -0,0 +1,69 @@
+package com.example.benchmark;
+
+import com.example.notificationmicroservice.NotificationMicroserviceApplication;
+import com.example.notificationmicroservice.dto.BatchResultDTO;
+import com.example.notificationmicroservice.dto.NotificationDTO;
+import com.example.notificationmicroservice.model.Notification;
+import com.example.notificationmicroservice.service.NotificationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//NotificationService on H2: a new notification (lookup + insert), a resent one (lookup only) and a batch of 100
+//comment ids only go up, so every new notification is a real insert; the table grows during the run
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationBenchmark {
+    private static final int BATCH_SIZE = 100;
+    private static final int RESENT_COMMENT_ID = 1;
+
+    private final AtomicInteger commentIds = new AtomicInteger(RESENT_COMMENT_ID);
+
+    private ConfigurableApplicationContext context;
+    private NotificationService notificationService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplications.start(NotificationMicroserviceApplication.class, "notification", Map.of());
+        notificationService = context.getBean(NotificationService.class);
+        notificationService.createNotification(notification(RESENT_COMMENT_ID));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static NotificationDTO notification(int commentId) {
+        return new NotificationDTO("commenter", 1, commentId, 1);
+    }
+
+    @Benchmark
+    public Notification createNotification() {
+        return notificationService.createNotification(notification(commentIds.incrementAndGet()));
+    }
+
+    @Benchmark
+    public Notification createResentNotification() {
+        return notificationService.createNotification(notification(RESENT_COMMENT_ID));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BatchResultDTO createNotificationsBatch() {
+        List<NotificationDTO> notificationDTOs = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            notificationDTOs.add(notification(commentIds.incrementAndGet()));
+        }
+        return notificationService.createNotifications(notificationDTOs);
+    }
+}
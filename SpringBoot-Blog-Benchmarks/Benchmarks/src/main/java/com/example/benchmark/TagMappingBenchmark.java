@@ -0,0 +1,57 @@
+package com.example.benchmark;
+
+import com.example.blog.dto.TagDTO;
+import com.example.blog.model.Tag;
+import com.example.blog.service.TagService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//TagService.mapToTags: DTOs to entities, with one findAllById for the blog ids of all DTOs
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TagMappingBenchmark {
+    @Param({"1", "50"})
+    public int tags;
+
+    @Param({"5"})
+    public int blogsPerTag;
+
+    private BlogFixture fixture;
+    private TagService tagService;
+    private List<TagDTO> tagDTOs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = BlogFixture.start(Map.of());
+        tagService = fixture.getBean(TagService.class);
+        Random random = new Random(42);
+        List<Integer> blogIds = fixture.getBlogIds();
+        tagDTOs = new ArrayList<>();
+        for (int i = 0; i < tags; i++) {
+            List<Integer> tagBlogIds = new ArrayList<>();
+            for (int j = 0; j < blogsPerTag; j++) {
+                tagBlogIds.add(blogIds.get(random.nextInt(blogIds.size())));
+            }
+            tagDTOs.add(new TagDTO("newtag" + i, "Tag Description", tagBlogIds));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<Tag> mapToTags() throws Exception {
+        return tagService.mapToTags(tagDTOs);
+    }
+}
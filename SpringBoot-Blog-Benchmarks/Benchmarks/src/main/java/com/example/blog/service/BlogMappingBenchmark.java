@@ -0,0 +1,50 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.BlogDTO;
+import com.example.blog.model.Address;
+import com.example.blog.model.Blog;
+import com.example.blog.model.Tag;
+import com.example.blog.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//BlogService.mapToBlog (DTO to entity, tags resolved from the map of the one tag query)
+//in the service's package because mapToBlog is package-private; it touches no bean, so no context is started
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlogMappingBenchmark {
+    @Param({"0", "5", "50"})
+    public int tags;
+
+    private final BlogService blogService = new BlogService();
+    private User user;
+    private Map<Integer, Tag> tagsById;
+    private BlogDTO blogDTO;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Address address = new Address(1, "123 1st Street", "Austin", "Texas", "78701", "USA", null);
+        user = new User(1, "TestUsername1", "test@email.com", "password123", null, address, new ArrayList<>());
+        tagsById = new HashMap<>();
+        List<Integer> tagIds = new ArrayList<>();
+        for (int i = 1; i <= tags; i++) {
+            tagsById.put(i, new Tag(i, "tag" + i, "Tag Description", new ArrayList<>()));
+            tagIds.add(i);
+        }
+        blogDTO = new BlogDTO("Blog Title", "Blog Content", null, user.getId(), tags == 0 ? null : tagIds);
+    }
+
+    @Benchmark
+    public Blog mapToBlog() {
+        return blogService.mapToBlog(blogDTO, user, tagsById);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.loadtest;
+
+import com.example.benchmark.BlogFixture;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+//seeds users, tags, blogs and comments through the api (bulk endpoints where there is one), so the data goes through
+//the same validation, caches, search index and notification outbox as in production
+public class DataSeeder {
+    private static final int BULK_SIZE = 500; //most blogs or comments per bulk request
+    private static final int TAGS_PER_BLOG = 3;
+    private static final int WORDS_PER_BLOG = 25; //content is a varchar(255)
+
+    private final BlogApi api;
+    private final LoadTestOptions options;
+    private final Random random;
+
+    public DataSeeder(BlogApi api, LoadTestOptions options) {
+        this.api = api;
+        this.options = options;
+        this.random = new Random(options.seed);
+    }
+
+    public SeedData seed() throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        SeedData data = new SeedData(Math.min(SeedData.MAX_TOPICS, options.seedBlogs), Long.toString(System.currentTimeMillis(), 36));
+
+        for (int i = 0; i < options.seedUsers; i++) {
+            String username = "load" + data.runId + "user" + i;
+            Map<String, Object> address = Map.of("street", i + " Main Street", "city", "Austin", "state", "Texas",
+                    "zipCode", "78701", "country", "USA");
+            JsonNode user = api.sendForJson(api.post("/users", Map.of("username", username, "email", username + "@email.com",
+                    "password", "password123", "address", address)), 201);
+            data.userIds.add(user.get("id").asInt());
+            data.usernames.add(username);
+        }
+
+        List<Map<String, Object>> tags = new ArrayList<>();
+        for (int i = 0; i < options.seedTags; i++) {
+            tags.add(Map.of("name", BlogFixture.WORDS[i % BlogFixture.WORDS.length] + data.runId + i, "description", "Tag Description"));
+        }
+        JsonNode tagResult = api.sendForJson(api.post("/tags/bulk", tags), 201);
+        for (JsonNode tag : tagResult.get("created")) {
+            data.tagIds.add(tag.get("id").asInt());
+            data.tagNames.add(tag.get("name").asText());
+        }
+
+        List<Map<String, Object>> blogs = new ArrayList<>();
+        for (int i = 0; i < options.seedBlogs; i++) {
+            List<Integer> tagIds = new ArrayList<>();
+            for (int j = 0; j < TAGS_PER_BLOG; j++) {
+                Integer tagId = data.tagIds.get(random.nextInt(data.tagIds.size()));
+                if (!tagIds.contains(tagId)) {
+                    tagIds.add(tagId);
+                }
+            }
+            blogs.add(Map.of("title", data.topic(i) + " " + sentence(4), "content", sentence(WORDS_PER_BLOG),
+                    "likes", 0, "userId", data.userIds.get(random.nextInt(data.userIds.size())), "tagIds", tagIds));
+            if (blogs.size() == BULK_SIZE || i == options.seedBlogs - 1) {
+                for (JsonNode blog : api.sendForJson(api.post("/blogs/bulk", blogs), 201)) {
+                    data.blogIds.add(blog.get("id").asInt());
+                }
+                blogs.clear();
+            }
+        }
+
+        List<Map<String, Object>> comments = new ArrayList<>();
+        int commentCount = options.seedBlogs * options.commentsPerBlog;
+        for (int i = 0; i < commentCount; i++) {
+            comments.add(Map.of("text", sentence(12), "likes", 0,
+                    "commenterUsername", data.usernames.get(random.nextInt(data.usernames.size())),
+                    "blogId", data.blogIds.get(i % data.blogIds.size())));
+            if (comments.size() == BULK_SIZE || i == commentCount - 1) {
+                for (JsonNode comment : api.sendForJson(api.post("/comments/bulk", comments), 201)) {
+                    data.commentIds.add(comment.get("id").asInt());
+                }
+                comments.clear();
+            }
+        }
+
+        System.out.printf("Seeded %d users, %d tags, %d blogs and %d comments in %d ms%n", data.userIds.size(),
+                data.tagIds.size(), data.blogIds.size(), data.commentIds.size(), System.currentTimeMillis() - start);
+        return data;
+    }
+
+    private String sentence(int words) {
+        return BlogFixture.sentence(random, words);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+//sends the workload to the Blog application for a fixed time, each request on its own virtual thread
+//closed model: a fixed number of virtual users, each sends its next request when the last one returns
+//open model: requests start at a fixed rate whether or not earlier ones returned, and latency is measured from the
+//time a request was due to start, so time spent waiting behind slow requests is part of it (no coordinated omission)
+public class LoadDriver {
+    private final BlogApi api;
+    private final Workload workload;
+    private final LoadTestOptions options;
+
+    public LoadDriver(BlogApi api, Workload workload, LoadTestOptions options) {
+        this.api = api;
+        this.workload = workload;
+        this.options = options;
+    }
+
+    public LoadResult run(Duration duration, long seed) {
+        LoadResult result;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        if (options.rate > 0) {
+            result = new LoadResult("open, " + options.rate + " requests/s (at most " + options.users + " in flight)", workload);
+            runOpen(result, start, end, seed);
+        } else {
+            result = new LoadResult("closed, " + options.users + " virtual users", workload);
+            runClosed(result, end, seed);
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void runClosed(LoadResult result, long end, long seed) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) { //close waits for every virtual user
+            for (int user = 0; user < options.users; user++) {
+                Random random = new Random(seed + user);
+                executor.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        Workload.Operation operation = workload.next(random);
+                        HttpRequest request = operation.requests.apply(random);
+                        long start = System.nanoTime();
+                        int status = send(request);
+                        result.record(operation, System.nanoTime() - start, status);
+                    }
+                });
+            }
+        }
+    }
+
+    private void runOpen(LoadResult result, long start, long end, long seed) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        Random random = new Random(seed);
+        Semaphore inFlight = new Semaphore(options.users); //like a client's connection pool, waiting for it counts as latency
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) { //close waits for the last requests
+            for (long due = start; due < end; due += interval) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Workload.Operation operation = workload.next(random);
+                HttpRequest request = operation.requests.apply(random);
+                long dueTime = due;
+                executor.submit(() -> {
+                    inFlight.acquireUninterruptibly();
+                    try {
+                        int status = send(request);
+                        result.record(operation, System.nanoTime() - dueTime, status);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    //status of the response, 0 if there was none
+    private int send(HttpRequest request) {
+        try {
+            return api.send(request);
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.loadtest;
+
+import com.example.blog.aop.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//throughput and latency percentiles of a run: a table on the console and optionally a csv file
+//percentiles come from the log-linear histogram of the Blog application's method metrics (at most ~3% above the real value)
+public class LoadReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LoadResult result;
+    private final double seconds;
+
+    public LoadReport(LoadResult result) {
+        this.result = result;
+        this.seconds = result.elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    public void print(PrintStream out) {
+        LatencyHistogram.Snapshot total = result.total.latency.snapshot();
+        out.printf("%nModel: %s%n", result.model);
+        out.printf("Duration: %.1f s, %d requests, %.1f requests/s, %d errors%n%n", seconds, total.getCount(),
+                total.getCount() / seconds, result.total.errors.sum());
+        out.printf("%-20s %6s %9s %9s %7s %9s %9s %9s %9s %9s %9s%n", "Operation", "Share", "Requests", "Req/s", "Errors",
+                "Mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms");
+        for (Map.Entry<String, LoadResult.OperationStats> entry : result.operations.entrySet()) {
+            printRow(out, entry.getKey(), entry.getValue(), total.getCount());
+        }
+        printRow(out, "total", result.total, total.getCount());
+
+        if (result.total.errors.sum() > 0) {
+            out.printf("%nErrors by status (0 = no response):%n");
+            result.operations.forEach((name, stats) -> stats.errorStatuses.forEach((status, count) ->
+                    out.printf("  %-20s %3d x %d%n", name, status, count.sum())));
+        }
+    }
+
+    private void printRow(PrintStream out, String name, LoadResult.OperationStats stats, long totalCount) {
+        LatencyHistogram.Snapshot snapshot = stats.latency.snapshot();
+        long count = snapshot.getCount();
+        out.printf("%-20s %5.1f%% %9d %9.1f %7d %9.2f", name, totalCount == 0 ? 0 : 100.0 * count / totalCount, count,
+                count / seconds, stats.errors.sum(), snapshot.getMeanNanos() / NANOS_PER_MILLI);
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9.2f", snapshot.getMillisAtPercentile(percentile));
+        }
+        out.printf(" %9.2f%n", snapshot.getMaxNanos() / NANOS_PER_MILLI);
+    }
+
+    public void writeCsv(Path file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            writer.println("operation,requests,requests_per_second,errors,mean_ms,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+            for (Map.Entry<String, LoadResult.OperationStats> entry : result.operations.entrySet()) {
+                writeCsvRow(writer, entry.getKey(), entry.getValue());
+            }
+            writeCsvRow(writer, "total", result.total);
+        }
+    }
+
+    private void writeCsvRow(PrintWriter writer, String name, LoadResult.OperationStats stats) {
+        LatencyHistogram.Snapshot snapshot = stats.latency.snapshot();
+        StringBuilder row = new StringBuilder(name).append(',').append(snapshot.getCount())
+                .append(',').append(String.format("%.2f", snapshot.getCount() / seconds))
+                .append(',').append(stats.errors.sum())
+                .append(',').append(String.format("%.3f", snapshot.getMeanNanos() / NANOS_PER_MILLI));
+        for (double percentile : PERCENTILES) {
+            row.append(',').append(String.format("%.3f", snapshot.getMillisAtPercentile(percentile)));
+        }
+        row.append(',').append(String.format("%.3f", snapshot.getMaxNanos() / NANOS_PER_MILLI));
+        writer.println(row);
+    }
+}
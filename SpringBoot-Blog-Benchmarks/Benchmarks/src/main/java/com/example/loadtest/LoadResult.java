@@ -0,0 +1,44 @@
+package com.example.loadtest;
+
+import com.example.blog.aop.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+//latencies and errors of one run, per operation and in total
+//responses with status 400 and above and requests without a response (status 0: timeout, refused connection) are errors,
+//their latency is recorded too
+public class LoadResult {
+    final String model;
+    final Map<String, OperationStats> operations = new LinkedHashMap<>(); //in the order of the workload
+    final OperationStats total = new OperationStats();
+    long elapsedNanos;
+
+    LoadResult(String model, Workload workload) {
+        this.model = model;
+        for (Workload.Operation operation : workload.getOperations()) {
+            operations.put(operation.name, new OperationStats());
+        }
+    }
+
+    void record(Workload.Operation operation, long nanos, int status) {
+        operations.get(operation.name).record(nanos, status);
+        total.record(nanos, status);
+    }
+
+    static class OperationStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final Map<Integer, LongAdder> errorStatuses = new ConcurrentHashMap<>();
+
+        private void record(long nanos, int status) {
+            latency.record(nanos);
+            if (status == 0 || status >= 400) {
+                errors.increment();
+                errorStatuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+            }
+        }
+    }
+}
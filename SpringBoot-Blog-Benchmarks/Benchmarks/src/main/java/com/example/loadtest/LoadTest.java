@@ -0,0 +1,32 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+
+//end-to-end load test: starts postgres, the NotificationMicroservice and the Blog application (or uses a running Blog
+//application given as target), seeds data through the api, warms up and then measures a mixed workload
+//usage: mvn exec:exec@loadtest -Dloadtest.args="users=64 duration=120", options are in LoadTestOptions
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(options)) {
+            BlogApi api = new BlogApi(environment.getBlogUrl());
+            SeedData data = new DataSeeder(api, options).seed();
+            Workload workload = new Workload(api, data, options.mix);
+            LoadDriver driver = new LoadDriver(api, workload, options);
+
+            if (!options.warmup.isZero()) {
+                System.out.printf("Warming up for %d s%n", options.warmup.toSeconds());
+                driver.run(options.warmup, options.seed - 1); //jit, connection pools and caches, the results are dropped
+            }
+            System.out.printf("Measuring for %d s%n", options.duration.toSeconds());
+            LoadReport report = new LoadReport(driver.run(options.duration, options.seed));
+            report.print(System.out);
+            if (options.report != null) {
+                report.writeCsv(Path.of(options.report));
+                System.out.printf("%nResults written to %s%n", options.report);
+            }
+        }
+        System.exit(0); //the http client's selector thread would keep the jvm alive
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.loadtest;
+
+import com.example.benchmark.BenchmarkApplications;
+import com.example.blog.BlogApplication;
+import com.example.notificationmicroservice.NotificationMicroserviceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+//the database and the two applications under test: the NotificationMicroservice first, then the Blog application
+//pointed at it (the notification relay and the notifications of a user go to the microservice)
+//with a target url nothing is started and the load goes to the running application
+public class LoadTestEnvironment implements AutoCloseable {
+    private static final String BLOG_DATABASE = "blog_loadtest";
+    private static final String NOTIFICATION_DATABASE = "notification_loadtest";
+
+    private EmbeddedPostgres embeddedPostgres;
+    private ConfigurableApplicationContext notificationContext;
+    private ConfigurableApplicationContext blogContext;
+    private String blogUrl;
+
+    public static LoadTestEnvironment start(LoadTestOptions options) throws IOException, SQLException {
+        LoadTestEnvironment environment = new LoadTestEnvironment();
+        if (options.target != null) {
+            environment.blogUrl = options.target;
+            return environment;
+        }
+        try {
+            environment.startApplications(options);
+        } catch (RuntimeException | IOException | SQLException e) {
+            environment.close();
+            throw e;
+        }
+        return environment;
+    }
+
+    private void startApplications(LoadTestOptions options) throws IOException, SQLException {
+        long start = System.currentTimeMillis();
+        notificationContext = BenchmarkApplications.startServer(NotificationMicroserviceApplication.class, "notification",
+                datasource(options, NOTIFICATION_DATABASE));
+        int notificationPort = BenchmarkApplications.port(notificationContext);
+
+        Map<String, Object> blogProperties = datasource(options, BLOG_DATABASE);
+        blogProperties.put("blog.notifications.url", "http://localhost:" + notificationPort + "/notifications/batch");
+        blogProperties.put("blog.notifications.users-url", "http://localhost:" + notificationPort + "/notifications/users/{id}");
+        blogProperties.put("blog.metrics.slow-call-ms", "2000"); //only the worst calls and queries, the report has the rest
+        blogProperties.put("blog.sql.slow-query-ms", "1000");
+        blogProperties.putAll(options.blogProperties);
+        blogContext = BenchmarkApplications.startServer(BlogApplication.class, "blog", blogProperties);
+        blogUrl = "http://localhost:" + BenchmarkApplications.port(blogContext);
+
+        System.out.printf("Started %s database, notification microservice on port %d and blog application at %s in %d ms%n",
+                options.db, notificationPort, blogUrl, System.currentTimeMillis() - start);
+    }
+
+    //datasource (and log levels) of one application, the h2 default of BenchmarkApplications unless the database is postgres
+    private Map<String, Object> datasource(LoadTestOptions options, String database) throws IOException, SQLException {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.jpa.open-in-view", "true"); //the default, set to drop its startup warning
+        //ddl-auto's "does not exist, skipping" notices of a new postgres database
+        properties.put("logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper", "ERROR");
+        switch (options.db) {
+            case "embedded" -> {
+                if (embeddedPostgres == null) {
+                    embeddedPostgres = EmbeddedPostgres.builder().start();
+                }
+                try (Connection connection = embeddedPostgres.getPostgresDatabase().getConnection()) {
+                    createDatabase(connection, database);
+                }
+                properties.put("spring.datasource.url", embeddedPostgres.getJdbcUrl("postgres", database) + "&reWriteBatchedInserts=true");
+                properties.put("spring.datasource.username", "postgres");
+            }
+            case "postgres" -> {
+                try (Connection connection = DriverManager.getConnection(options.postgresUrl + "postgres",
+                        options.postgresUsername, options.postgresPassword)) {
+                    createDatabase(connection, database);
+                }
+                properties.put("spring.datasource.url", options.postgresUrl + database + "?reWriteBatchedInserts=true");
+                properties.put("spring.datasource.username", options.postgresUsername);
+                properties.put("spring.datasource.password", options.postgresPassword);
+            }
+            default -> {
+            }
+        }
+        return properties;
+    }
+
+    //the tables are created (and dropped first) by ddl-auto, only the database has to exist
+    private static void createDatabase(Connection connection, String database) throws SQLException {
+        try (PreparedStatement exists = connection.prepareStatement("SELECT 1 FROM pg_database WHERE datname = ?")) {
+            exists.setString(1, database);
+            try (ResultSet resultSet = exists.executeQuery()) {
+                if (resultSet.next()) {
+                    return;
+                }
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + database);
+        }
+    }
+
+    public String getBlogUrl() {
+        return blogUrl;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (blogContext != null) {
+            blogContext.close();
+        }
+        if (notificationContext != null) {
+            notificationContext.close();
+        }
+        if (embeddedPostgres != null) {
+            embeddedPostgres.close();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+//options of a load test run, given as key=value arguments (e.g. users=64 duration=120)
+//arguments starting with "blog." are passed to the Blog application (e.g. blog.search.index.enabled=true)
+public class LoadTestOptions {
+    private static final Set<String> KEYS = Set.of("db", "postgres-url", "postgres-username", "postgres-password", "target",
+            "seed-users", "seed-tags", "seed-blogs", "comments-per-blog", "users", "rate", "warmup", "duration", "seed", "mix", "report");
+
+    final String db; //embedded (postgres started from the embedded-postgres jar), postgres (a running server) or h2
+    final String postgresUrl; //server of db=postgres, the load test creates its own databases on it
+    final String postgresUsername;
+    final String postgresPassword;
+    final String target; //url of a Blog application that is already running, nothing is started when given
+
+    final int seedUsers;
+    final int seedTags;
+    final int seedBlogs;
+    final int commentsPerBlog;
+
+    final int users; //virtual users (closed model), or the most requests in flight (open model)
+    final int rate; //requests per second (open model), 0 = closed model (every virtual user sends its next request when the last one returns)
+    final Duration warmup; //not part of the results
+    final Duration duration;
+    final long seed; //random seed of the data and the request sequence
+    final Map<String, Integer> mix; //weights of the operations that replace the defaults of Workload
+    final String report; //csv file for the results, optional
+
+    final Map<String, Object> blogProperties = new HashMap<>();
+
+    private LoadTestOptions(Map<String, String> values) {
+        db = values.getOrDefault("db", "embedded");
+        postgresUrl = values.getOrDefault("postgres-url", "jdbc:postgresql://localhost:5432/");
+        postgresUsername = values.getOrDefault("postgres-username", "postgres");
+        postgresPassword = values.getOrDefault("postgres-password", "");
+        target = values.get("target");
+        seedUsers = positive(values, "seed-users", 200);
+        seedTags = positive(values, "seed-tags", 100);
+        seedBlogs = positive(values, "seed-blogs", 5000);
+        commentsPerBlog = positive(values, "comments-per-blog", 4);
+        users = positive(values, "users", 32);
+        rate = intValue(values, "rate", 0);
+        warmup = Duration.ofSeconds(intValue(values, "warmup", 30));
+        duration = Duration.ofSeconds(positive(values, "duration", 60));
+        seed = Long.parseLong(values.getOrDefault("seed", "42"));
+        mix = parseMix(values.get("mix"));
+        report = values.get("report");
+        if (!Set.of("embedded", "postgres", "h2").contains(db)) {
+            throw new IllegalArgumentException("db must be embedded, postgres or h2 but was " + db);
+        }
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        Map<String, Object> blogProperties = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Arguments must be key=value but was " + arg);
+            }
+            String key = arg.substring(0, separator);
+            String value = arg.substring(separator + 1);
+            if (key.startsWith("blog.")) {
+                blogProperties.put(key, value);
+            } else if (KEYS.contains(key)) {
+                values.put(key, value);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + key + ", options are " + KEYS);
+            }
+        }
+        LoadTestOptions options = new LoadTestOptions(values);
+        options.blogProperties.putAll(blogProperties);
+        return options;
+    }
+
+    //e.g. getBlog:50,createComment:10 (operations that aren't given keep their default weight, 0 turns one off)
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        if (mix == null || mix.isBlank()) {
+            return weights;
+        }
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries must be operation:weight but was " + entry);
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private static int intValue(Map<String, String> values, String key, int defaultValue) {
+        int value = values.containsKey(key) ? Integer.parseInt(values.get(key)) : defaultValue;
+        if (value < 0) {
+            throw new IllegalArgumentException(key + " cannot be negative");
+        }
+        return value;
+    }
+
+    private static int positive(Map<String, String> values, String key, int defaultValue) {
+        int value = intValue(values, key, defaultValue);
+        if (value == 0) {
+            throw new IllegalArgumentException(key + " must be greater than 0");
+        }
+        return value;
+    }
+}
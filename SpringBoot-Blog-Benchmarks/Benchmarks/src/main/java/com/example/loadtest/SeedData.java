@@ -0,0 +1,27 @@
+package com.example.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//ids and names of the seeded data that the workload picks from
+public class SeedData {
+    static final int MAX_TOPICS = 100; //every title has one topic word, so a keyword search for a topic matches blogs / topics blogs
+
+    final int topics;
+    final String runId; //part of every seeded name, a target application may have data (and names) from earlier runs
+    final List<Integer> userIds = new ArrayList<>();
+    final List<String> usernames = new ArrayList<>();
+    final List<Integer> tagIds = new ArrayList<>();
+    final List<String> tagNames = new ArrayList<>();
+    final List<Integer> blogIds = new ArrayList<>();
+    final List<Integer> commentIds = new ArrayList<>();
+
+    SeedData(int topics, String runId) {
+        this.topics = topics;
+        this.runId = runId;
+    }
+
+    String topic(int i) {
+        return String.format("topic%02d", i % topics); //fixed width, so a LIKE on one topic doesn't match another
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.loadtest;
+
+import com.example.benchmark.BlogFixture;
+
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+//the operation mix: requests across all controllers, picked at random by weight
+//the default is two thirds reads and one third writes; likes and comments are the most frequent writes, and every comment
+//also sends a notification to the microservice
+public class Workload {
+    private final List<Operation> operations = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private final AtomicInteger created = new AtomicInteger(); //unique names of created users and tags
+
+    public Workload(BlogApi api, SeedData data, Map<String, Integer> mix) {
+        Map<String, Operation> defaults = new LinkedHashMap<>();
+        //reads
+        add(defaults, "getBlog", 25, random -> api.get("/blogs/" + pick(random, data.blogIds)));
+        add(defaults, "getBlogSummaries", 4, random -> api.get("/blogs/summaries?limit=20"));
+        add(defaults, "getBlogsPage", 2, random -> api.get("/blogs?limit=20"));
+        add(defaults, "getBlogsByKeyword", 4, random -> api.get("/blogs?keyword=" + data.topic(random.nextInt(data.topics))));
+        add(defaults, "searchBlogs", 4, random -> api.get("/blogs/search?size=20&query=" + word(random)));
+        add(defaults, "getBlogsByTag", 5, random -> api.get("/tags/" + pick(random, data.tagIds) + "/blogs"));
+        add(defaults, "getTagsByName", 2, random -> api.get("/tags?name=" + pick(random, data.tagNames)));
+        add(defaults, "getTag", 2, random -> api.get("/tags/" + pick(random, data.tagIds)));
+        add(defaults, "getBlogsByUser", 5, random -> api.get("/users/" + pick(random, data.userIds) + "/blogs"));
+        add(defaults, "getUser", 3, random -> api.get("/users/" + pick(random, data.userIds)));
+        add(defaults, "getComment", 3, random -> api.get("/comments/" + pick(random, data.commentIds)));
+        add(defaults, "getNotifications", 3, random -> api.get("/users/" + pick(random, data.userIds) + "/notifications"));
+        //writes
+        add(defaults, "likeBlog", 12, random -> api.post("/blogs/" + pick(random, data.blogIds) + "/likes"));
+        add(defaults, "likeComment", 4, random -> api.post("/comments/" + pick(random, data.commentIds) + "/likes"));
+        add(defaults, "createComment", 8, random -> api.post("/comments", Map.of("text", BlogFixture.sentence(random, 12),
+                "likes", 0, "commenterUsername", pick(random, data.usernames), "blogId", pick(random, data.blogIds))));
+        add(defaults, "createBlog", 4, random -> api.post("/blogs", Map.of("title", data.topic(random.nextInt(data.topics))
+                        + " " + BlogFixture.sentence(random, 4), "content", BlogFixture.sentence(random, 25), "likes", 0,
+                "userId", pick(random, data.userIds), "tagIds", List.of(pick(random, data.tagIds)))));
+        add(defaults, "addTagToBlog", 2, random -> api.put("/blogs/" + pick(random, data.blogIds) + "/tags",
+                Map.of("name", "loadtag" + data.runId + created.incrementAndGet(), "description", "Tag Description")));
+        add(defaults, "createUser", 1, random -> {
+            String username = "load" + data.runId + "new" + created.incrementAndGet();
+            return api.post("/users", Map.of("username", username, "email", username + "@email.com", "password", "password123",
+                    "address", Map.of("street", "1 Main Street", "city", "Austin", "state", "Texas", "zipCode", "78701",
+                            "country", "USA")));
+        });
+
+        Set<String> unknown = new HashSet<>(mix.keySet());
+        unknown.removeAll(defaults.keySet());
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown operations " + unknown + " in mix, operations are " + defaults.keySet());
+        }
+        for (Operation operation : defaults.values()) {
+            int weight = mix.getOrDefault(operation.name, operation.weight);
+            if (weight > 0) {
+                operations.add(new Operation(operation.name, weight, operation.requests));
+            }
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("The mix must have at least one operation with a weight above 0");
+        }
+        cumulativeWeights = new int[operations.size()];
+        int sum = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            sum += operations.get(i).weight;
+            cumulativeWeights[i] = sum;
+        }
+        totalWeight = sum;
+    }
+
+    private static void add(Map<String, Operation> operations, String name, int weight, Function<Random, HttpRequest> requests) {
+        operations.put(name, new Operation(name, weight, requests));
+    }
+
+    private static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String word(Random random) {
+        return BlogFixture.WORDS[random.nextInt(BlogFixture.WORDS.length)];
+    }
+
+    public Operation next(Random random) {
+        int value = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        throw new IllegalStateException("Weight " + value + " is outside of the mix");
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    public int getTotalWeight() {
+        return totalWeight;
+    }
+
+    public static class Operation {
+        final String name;
+        final int weight;
+        final Function<Random, HttpRequest> requests; //builds the next request of this operation
+
+        Operation(String name, int weight, Function<Random, HttpRequest> requests) {
+            this.name = name;
+            this.weight = weight;
+            this.requests = requests;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.blog.aop;
+
+import com.example.blog.dto.MethodStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+//times every service method into a per-method latency histogram and counts the calls that throw
+//a call costs two nanoTime reads, a map lookup and the histogram update - no strings are built unless a call is slow
+//only calls slower than blog.metrics.slow-call-ms are logged (warn), exceptions are counted and logged at debug
+//(they are expected results like "not found" that the controllers turn into responses)
+@Slf4j
+@Aspect
+@Component
+public class MethodMetricsAspect {
+    private final long slowCallNanos;
+
+    private final ConcurrentHashMap<Method, MethodStats> statsByMethod = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, MethodStats> statsByName = new ConcurrentHashMap<>(); //overloads share one entry
+
+    public MethodMetricsAspect(@Value("${blog.metrics.slow-call-ms:500}") long slowCallMs) {
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+    }
+
+    @Pointcut("execution(* com.example.blog.service..*.*(..))") //for all service layers in program
+    public void serviceMethods() {
+    }
+
+    @Around("serviceMethods()")
+    public Object timeServiceMethod(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+        MethodStats stats = statsOf(((MethodSignature) proceedingJoinPoint.getSignature()).getMethod());
+        long start = System.nanoTime();
+        try {
+            return proceedingJoinPoint.proceed(); //run the method
+        } catch (Throwable throwable) {
+            stats.errors.increment();
+            log.debug("{} threw {}: {}", stats.name, throwable.getClass().getSimpleName(), throwable.getMessage());
+            throw throwable;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            stats.latency.record(elapsed);
+            if (elapsed >= slowCallNanos) {
+                log.warn("Slow call: {} took {} ms", stats.name, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+    }
+
+    //latency percentiles, call and error counts of every service method called since startup, sorted by name
+    public List<MethodStatsDTO> getStats() {
+        List<MethodStatsDTO> methods = new ArrayList<>();
+        for (MethodStats stats : new TreeMap<>(statsByName).values()) {
+            LatencyHistogram.Snapshot snapshot = stats.latency.snapshot();
+            long calls = snapshot.getCount();
+            long errors = stats.errors.sum();
+            methods.add(new MethodStatsDTO(stats.name, calls, errors, calls == 0 ? 0 : (double) errors / calls,
+                    LatencyHistogram.Snapshot.toMillis(snapshot.getMeanNanos()),
+                    snapshot.getMillisAtPercentile(50), snapshot.getMillisAtPercentile(99),
+                    snapshot.getMillisAtPercentile(99.9), LatencyHistogram.Snapshot.toMillis(snapshot.getMaxNanos())));
+        }
+        return methods;
+    }
+
+    private MethodStats statsOf(Method method) {
+        MethodStats stats = statsByMethod.get(method); //plain get first, computeIfAbsent may lock the bin
+        if (stats == null) {
+            stats = statsByMethod.computeIfAbsent(method, key -> statsByName.computeIfAbsent(
+                    key.getDeclaringClass().getSimpleName() + "." + key.getName(), MethodStats::new));
+        }
+        return stats;
+    }
+
+    private static final class MethodStats {
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        private MethodStats(String name) {
+            this.name = name;
+        }
+    }
+}
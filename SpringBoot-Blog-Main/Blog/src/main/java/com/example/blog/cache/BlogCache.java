@@ -0,0 +1,113 @@
+package com.example.blog.cache;
+
+import com.example.blog.model.Blog;
+import com.example.blog.model.Comment;
+import com.example.blog.model.Tag;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+//read-through cache of blogs by id for GET /blogs/{id}, holding the blog with its tags and comments already loaded
+//bounded by estimated heap bytes instead of entry count because blog sizes vary a lot (long content, many comments)
+//every service method that changes a blog, its comments or its tags must call invalidate (also drops the blog's cached json)
+@Component
+public class BlogCache {
+    public static final String NAME = "blogs";
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    BlogJsonCache jsonCache;
+
+    private final boolean enabled;
+    private final Cache<Object, Object> cache;
+
+    public BlogCache(@Value("${blog.cache.blogs.enabled:true}") boolean enabled,
+                     @Value("${blog.cache.blogs.max-bytes:67108864}") long maxBytes,
+                     @Value("${blog.cache.blogs.ttl-seconds:600}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Object id, Object blog) -> (int) Math.min(Integer.MAX_VALUE, estimateBytes((Blog) blog)))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    //shows up in /metrics/caches next to the other caches
+    @PostConstruct
+    public void register() {
+        if (enabled && cacheManager instanceof CaffeineCacheManager caffeineCacheManager) {
+            caffeineCacheManager.registerCustomCache(NAME, cache);
+        }
+    }
+
+    //cached blog, or the loader's result (cached unless null)
+    //concurrent misses for the same id wait for one load instead of all querying the database
+    public Blog get(Integer id, Function<Integer, Blog> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        return (Blog) cache.get(id, key -> loader.apply(id));
+    }
+
+    public void invalidate(Integer id) {
+        if (id == null) {
+            return;
+        }
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) { //a read before the commit could cache the old blog again
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    //for changes that can show up in any blog (tag renamed or deleted)
+    public void invalidateAll() {
+        cache.invalidateAll();
+        jsonCache.invalidateAll();
+    }
+
+    private void evict(Integer id) {
+        cache.invalidate(id);
+        jsonCache.invalidateBlog(id);
+    }
+
+    //rough heap size of a blog with its comments and tags (object headers, fields, strings as 2 bytes per char)
+    //tags shared between blogs are counted in every blog, so this errs on the high side
+    static long estimateBytes(Blog blog) {
+        long bytes = 64 + 2 * 48 + stringBytes(blog.getTitle()) + stringBytes(blog.getContent()); //blog + timestamps
+        if (blog.getComments() != null) {
+            bytes += 48 + 4L * blog.getComments().size();
+            for (Comment comment : blog.getComments()) {
+                bytes += 40 + 48 + stringBytes(comment.getText()) + stringBytes(comment.getCommenterUsername());
+            }
+        }
+        if (blog.getTags() != null) {
+            bytes += 48 + 4L * blog.getTags().size();
+            for (Tag tag : blog.getTags()) {
+                bytes += 32 + stringBytes(tag.getName()) + stringBytes(tag.getDescription());
+            }
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+}
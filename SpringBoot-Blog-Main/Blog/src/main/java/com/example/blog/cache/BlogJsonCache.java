@@ -0,0 +1,94 @@
+package com.example.blog.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+
+//optional cache of the serialized UTF-8 json of GET /blogs/{id}, /tags/{id}/blogs and /users/{id}/blogs
+//a hit is written to the response as is, skipping jackson (and the entity graph walk) entirely
+//serialized with the same ObjectMapper as the http message converters, so the json is identical to an uncached response
+//invalidated through BlogCache, so every write that invalidates a blog also drops its json and all cached blog lists
+@Component
+public class BlogJsonCache {
+    public static final String NAME = "blogJson";
+    private static final String BLOG_KEY = "blog:";
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    private final boolean enabled;
+    private final Cache<Object, Object> cache;
+
+    public BlogJsonCache(@Value("${blog.cache.json.enabled:false}") boolean enabled,
+                         @Value("${blog.cache.json.max-bytes:33554432}") long maxBytes,
+                         @Value("${blog.cache.json.ttl-seconds:600}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Object key, Object json) -> 64 + ((byte[]) json).length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @PostConstruct
+    public void register() {
+        if (enabled && cacheManager instanceof CaffeineCacheManager caffeineCacheManager) {
+            caffeineCacheManager.registerCustomCache(NAME, cache);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public byte[] getBlog(Integer id, Callable<Object> loader) throws Exception {
+        return get(BLOG_KEY + id, loader);
+    }
+
+    public byte[] getBlogsByTag(Integer tagId, Callable<Object> loader) throws Exception {
+        return get("tag-blogs:" + tagId, loader);
+    }
+
+    public byte[] getBlogsByUser(Integer userId, Callable<Object> loader) throws Exception {
+        return get("user-blogs:" + userId, loader);
+    }
+
+    //a changed blog can be in any tag's or user's list, so lists are dropped along with the blog
+    public void invalidateBlog(Integer id) {
+        cache.invalidate(BLOG_KEY + id);
+        cache.asMap().keySet().removeIf(key -> !((String) key).startsWith(BLOG_KEY));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    //cached json, or the loader's result serialized and cached (exceptions such as "not found" are thrown, not cached)
+    private byte[] get(String key, Callable<Object> loader) throws Exception {
+        try {
+            return (byte[]) cache.get(key, k -> {
+                try {
+                    return objectMapper.writeValueAsBytes(loader.call());
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+        } catch (CompletionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+}
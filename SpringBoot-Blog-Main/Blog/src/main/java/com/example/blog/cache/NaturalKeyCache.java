@@ -0,0 +1,43 @@
+package com.example.blog.cache;
+
+import com.example.blog.configuration.CacheConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+//invalidates the findIdByName/findIdByUsername caches (see ITagRepository and IUserRepository)
+//services call this after every save/delete that adds, renames or removes a tag name or username
+//inside a transaction the entry is evicted again after the commit: a lookup in between still reads the old rows and
+//would cache them (a "not found" for a new name) until the entries expire
+@Component
+public class NaturalKeyCache {
+    @Autowired
+    CacheManager cacheManager;
+
+    public void evictTag(String name) {
+        evict(CacheConfig.TAG_IDS_BY_NAME, name);
+    }
+
+    public void evictUser(String username) {
+        evict(CacheConfig.USER_IDS_BY_USERNAME, username);
+    }
+
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || key == null) {
+            return;
+        }
+        cache.evict(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(key);
+                }
+            });
+        }
+    }
+}
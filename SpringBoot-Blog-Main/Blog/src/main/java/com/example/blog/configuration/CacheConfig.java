@@ -0,0 +1,36 @@
+package com.example.blog.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String TAG_IDS_BY_NAME = "tagIdsByName";
+    public static final String USER_IDS_BY_USERNAME = "userIdsByUsername";
+
+    @Value("${blog.cache.natural-key.max-size:10000}")
+    private long naturalKeyMaxSize;
+
+    @Value("${blog.cache.natural-key.ttl-seconds:600}")
+    private long naturalKeyTtlSeconds;
+
+    //caffeine evicts by size (W-TinyLFU keeps the frequently used keys) and by age, so missed evictions can't live forever
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(TAG_IDS_BY_NAME, USER_IDS_BY_USERNAME);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(naturalKeyMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(naturalKeyTtlSeconds))
+                .recordStats()); //hit ratio for /metrics/caches
+        cacheManager.setAllowNullValues(true); //"no tag/user with this name" is cached too - most lookups are duplicate checks
+        return cacheManager;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.blog.configuration;
+
+import com.example.blog.sql.QueryMetricsInterceptor;
+import com.example.blog.sql.QueryMetricsListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+//wraps the datasource in a datasource-proxy so every statement - repository queries, lazy loads, jdbc template calls -
+//goes through QueryMetricsListener, and counts them per request with QueryMetricsInterceptor
+//hikari is still found behind the proxy (unwrap), so its pool metrics keep working
+@Configuration
+public class DataSourceProxyConfig implements WebMvcConfigurer {
+    @Autowired
+    QueryMetricsInterceptor queryMetricsInterceptor;
+
+    //static, bean post processors are created before the other beans (too early for @Value, so the environment is read)
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                        && environment.getProperty("blog.sql.proxy.enabled", Boolean.class, true)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new QueryMetricsListener(environment.getProperty("blog.sql.slow-query-ms", Long.class, 200L)))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryMetricsInterceptor).excludePathPatterns("/actuator/**");
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.blog.configuration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+//database checks for the postgres-only schema initializers (indexes and sequences JPA can't create)
+public final class Databases {
+    private Databases() {
+    }
+
+    //false for any other database, and when no connection can be made (the initializer is skipped, not the startup)
+    public static boolean isPostgres(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.blog.configuration;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.id.SequenceMismatchStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//entity ids come from sequences that hand out blocks of allocationSize ids (set on each entity's @SequenceGenerator),
+//hibernate assigns the ids of a block in memory so only one insert per block waits for a nextval round trip
+//pooled-lo: nextval n reserves ids n .. n + allocationSize - 1
+//sequences created before the block sizes were raised still increment by 1 - with the fix strategy hibernate then uses
+//the sequence's increment instead of failing at startup, and SequenceIncrementInitializer raises the increment for the next start
+//none turns the blocks off: hibernate lowers every increment to 1 (as allocationSize = 1), one nextval per insert - for comparisons
+@Configuration
+public class IdGenerationConfig {
+    @Value("${blog.id.optimizer:pooled-lo}") //pooled-lo, pooled or none
+    private String optimizer;
+
+    @Bean
+    public HibernatePropertiesCustomizer idGenerationCustomizer() {
+        return properties -> { //spring.jpa.properties.hibernate.* still wins
+            properties.putIfAbsent(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, optimizer);
+            properties.putIfAbsent(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, SequenceMismatchStrategy.FIX);
+        };
+    }
+}
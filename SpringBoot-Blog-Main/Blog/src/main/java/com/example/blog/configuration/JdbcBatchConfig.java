@@ -0,0 +1,26 @@
+package com.example.blog.configuration;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//hibernate sends inserts and updates of one flush in jdbc batches (one round trip per batch-size rows)
+//ordering groups the statements by table, so saving tags with their blogs or comments with their outbox rows
+//doesn't break a batch every time the table changes
+//ids come from sequence blocks (see IdGenerationConfig), identity columns would turn batching off for inserts
+@Configuration
+public class JdbcBatchConfig {
+    @Value("${blog.jdbc.batch-size:50}")
+    private int batchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchCustomizer() {
+        return properties -> { //spring.jpa.properties.hibernate.* still wins
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
+}
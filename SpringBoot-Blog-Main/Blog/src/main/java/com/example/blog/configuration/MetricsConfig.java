@@ -0,0 +1,49 @@
+package com.example.blog.configuration;
+
+import io.micrometer.core.instrument.Tag;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.context.event.EventListener;
+
+//actuator/micrometer metrics: http server and client timers per route, hikari pool, jvm (gc, memory, threads)
+//and caches come from spring boot, this adds hibernate statistics (query/statement counts) and binds
+//the blog caches, which are added to the cache manager after boot has bound the caches it knew about
+@Configuration
+@PropertySource("classpath:blog-metrics.properties")
+public class MetricsConfig {
+    @Value("${blog.metrics.hibernate-statistics:true}")
+    private boolean hibernateStatistics;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    ObjectProvider<CacheMetricsRegistrar> cacheMetricsRegistrar; //missing when metrics are off (e.g. test slices)
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer() {
+        return properties -> { //spring.jpa.properties.hibernate.* still wins
+            properties.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, hibernateStatistics);
+            properties.putIfAbsent(AvailableSettings.LOG_SESSION_METRICS, false); //no statistics log entry per session
+        };
+    }
+
+    //binding a cache twice is harmless, the registry keeps the meters it already has
+    @EventListener(ApplicationReadyEvent.class)
+    public void bindCaches() {
+        cacheMetricsRegistrar.ifAvailable(registrar -> {
+            for (String name : cacheManager.getCacheNames()) {
+                registrar.bindCacheToRegistry(cacheManager.getCache(name), Tag.of("cache.manager", "cacheManager"));
+            }
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.blog.configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+//schema migration for the id block sizes: raises the increment of every entity sequence to its allocationSize
+//(ddl-auto=update creates missing sequences but never changes existing ones)
+//hibernate reads the increments at startup, so the new block size is used from the next start
+//raising is safe while the application runs (later blocks just start further up), lowering is not and is left to be done
+//by hand with the application stopped
+@Slf4j
+@Component
+public class SequenceIncrementInitializer {
+    private static final String INCREMENT = "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?";
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Value("${blog.id.sequence-migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${blog.id.optimizer:pooled-lo}")
+    private String optimizer;
+
+    @EventListener(ApplicationReadyEvent.class) //runs after hibernate has created/updated the tables and sequences
+    public void alignSequenceIncrements() {
+        if (!enabled || "none".equals(optimizer) || !Databases.isPostgres(dataSource)) { //no blocks, increments stay at 1
+            return;
+        }
+        for (SequenceGenerator generator : sequenceGenerators()) {
+            String sequence = generator.sequenceName().isEmpty() ? generator.name() : generator.sequenceName();
+            try {
+                List<Long> increments = jdbcTemplate.queryForList(INCREMENT, Long.class, sequence);
+                if (increments.isEmpty()) {
+                    continue;
+                }
+                long increment = increments.get(0);
+                if (increment < generator.allocationSize()) {
+                    jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + generator.allocationSize());
+                    log.info("Sequence {} now increments by {} (was {}), ids are generated in blocks from the next start",
+                            sequence, generator.allocationSize(), increment);
+                } else if (increment > generator.allocationSize()) {
+                    log.warn("Sequence {} increments by {}, more than its allocationSize {} - hibernate uses the sequence's increment",
+                            sequence, increment, generator.allocationSize());
+                }
+            } catch (Exception e) {
+                log.warn("Increment of sequence {} could not be changed: {}", sequence, e.getMessage());
+            }
+        }
+    }
+
+    //the @SequenceGenerator on the id field of every entity
+    public List<SequenceGenerator> sequenceGenerators() {
+        List<SequenceGenerator> generators = new ArrayList<>();
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            for (Class<?> type = entity.getJavaType(); type != null; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    SequenceGenerator generator = field.getAnnotation(SequenceGenerator.class);
+                    if (generator != null) {
+                        generators.add(generator);
+                    }
+                }
+            }
+        }
+        return generators;
+    }
+}
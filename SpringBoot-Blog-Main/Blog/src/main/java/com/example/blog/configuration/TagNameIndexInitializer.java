@@ -0,0 +1,55 @@
+package com.example.blog.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+//adds a unique index on lower(name) to the tag table (JPA can only create indexes on plain columns)
+//the service stores names lower case, but rows written before it did (or by hand) may not be: those are lower cased first,
+//unless another tag already has the same lower case name - such names are logged and the index is left out until they
+//are merged or renamed by hand (which tag keeps the blogs is not something to decide here)
+@Slf4j
+@Component
+public class TagNameIndexInitializer {
+    private static final String NORMALIZE = "UPDATE tag t SET name = lower(t.name) WHERE t.name <> lower(t.name) " +
+            "AND NOT EXISTS (SELECT 1 FROM tag other WHERE other.id <> t.id AND lower(other.name) = lower(t.name))";
+    private static final String CONFLICTS = "SELECT lower(name) FROM tag GROUP BY lower(name) HAVING count(*) > 1 ORDER BY 1";
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${blog.tags.lower-name-index.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class) //runs after hibernate has created/updated the tables
+    public void createLowerNameIndex() {
+        if (!enabled || !Databases.isPostgres(dataSource)) {
+            return;
+        }
+        try {
+            int normalized = jdbcTemplate.update(NORMALIZE);
+            if (normalized > 0) {
+                log.info("Lower cased the names of {} tags", normalized);
+            }
+            List<String> conflicts = jdbcTemplate.queryForList(CONFLICTS, String.class);
+            if (!conflicts.isEmpty()) {
+                log.warn("Unique index on lower(name) not created, more than one tag is named {} (ignoring case) - " +
+                        "merge or rename them", conflicts);
+                return;
+            }
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_tag_lower_name ON tag (lower(name))");
+        } catch (Exception e) {
+            log.warn("Unique index on lower(name) could not be created: {}", e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.blog.controller;
 
 import ch.qos.logback.core.encoder.EchoEncoder;
+import com.example.blog.cache.BlogJsonCache;
 import com.example.blog.dto.BlogDTO;
+import com.example.blog.dto.SearchIndexStatsDTO;
+import com.example.blog.likes.LikeCounter;
 import com.example.blog.model.Blog;
 import com.example.blog.model.Comment;
 import com.example.blog.model.Tag;
@@ -12,8 +15,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,6 +29,12 @@ public class BlogController {
     @Autowired
     BlogService blogService;
 
+    @Autowired
+    BlogJsonCache blogJsonCache;
+
+    @Autowired
+    LikeCounter likeCounter;
+
     //GET
     //get all blogs
     @GetMapping
@@ -31,10 +42,37 @@ public class BlogController {
         return ResponseEntity.ok(blogService.getAllBlogs());
     }
 
+    //get page of blogs (keyset pagination, newest first)
+    @GetMapping(params = "limit")
+    public ResponseEntity<?> getBlogsPage(@RequestParam Integer limit, @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(blogService.getBlogsPage(limit, cursor));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage()); //if limit is out of range or cursor is invalid
+        }
+    }
+
+    //get page of blog summaries (title, likes and dates without comments or tags)
+    @GetMapping("/summaries")
+    public ResponseEntity<?> getBlogSummariesPage(@RequestParam(defaultValue = "20") Integer limit, @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(blogService.getBlogSummariesPage(limit, cursor));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage()); //if limit is out of range or cursor is invalid
+        }
+    }
+
     //get blog by id
     @GetMapping("/{id}")
-    public ResponseEntity<?> getBlogById(@PathVariable Integer id) {
+    public ResponseEntity<?> getBlogById(@PathVariable Integer id, WebRequest request) {
         try {
+            if (ConditionalGet.isNotModified(request, "blog-" + id, blogService.getBlogVersion(id))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build(); //client's copy is current
+            }
+            if (blogJsonCache.isEnabled()) { //already serialized json, written to the response as is
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                        .body(blogJsonCache.getBlog(id, () -> blogService.getBlogById(id)));
+            }
             return ResponseEntity.ok(blogService.getBlogById(id)); //returns blog to postman
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage()); //if blog id not found
@@ -54,6 +92,18 @@ public class BlogController {
         }
     }
 
+    //create many blogs at once (all or none)
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createBlogs(@Valid @RequestBody List<@Valid BlogDTO> blogDTOs) {
+        try {
+            return new ResponseEntity<>(blogService.createBlogs(blogDTOs), HttpStatus.CREATED);
+        } catch (NullPointerException | IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage()); //if list is empty, too long or has a null blog
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage()); //if a user id or tag id not found
+        }
+    }
+
 
     //PUT
     //update blog
@@ -104,6 +154,23 @@ public class BlogController {
         }
     }
 
+    //search blogs (ranked full-text search, one page at a time)
+    @GetMapping("/search")
+    public ResponseEntity<?> searchBlogs(@RequestParam String query, @RequestParam(defaultValue = "0") Integer page,
+                                         @RequestParam(defaultValue = "20") Integer size) {
+        try {
+            return ResponseEntity.ok(blogService.searchBlogs(query, page, size));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage()); //blank query or page/size out of range
+        }
+    }
+
+    //get size and memory footprint of the in-memory search index
+    @GetMapping("/search/index")
+    public ResponseEntity<SearchIndexStatsDTO> getSearchIndexStats() {
+        return ResponseEntity.ok(blogService.getSearchIndexStats());
+    }
+
     //add new tag to blog
     @PutMapping("/{id}/tags")
     public ResponseEntity<?> addTagToBlog(@PathVariable Integer id, @Valid @RequestBody Tag tag) {
@@ -128,5 +195,25 @@ public class BlogController {
         }
     }
 
+    //like blog (counted in memory, written to the database within blog.likes.flush-ms)
+    @PostMapping("/{id}/likes")
+    public ResponseEntity<?> likeBlog(@PathVariable Integer id) {
+        try {
+            likeCounter.likeBlog(id);
+            return ResponseEntity.accepted().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage()); //too many pending likes
+        }
+    }
 
+    //unlike blog
+    @DeleteMapping("/{id}/likes")
+    public ResponseEntity<?> unlikeBlog(@PathVariable Integer id) {
+        try {
+            likeCounter.unlikeBlog(id);
+            return ResponseEntity.accepted().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage()); //too many pending likes
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.blog.controller;
 
 import com.example.blog.dto.CommentDTO;
+import com.example.blog.likes.LikeCounter;
 import com.example.blog.model.Comment;
 import com.example.blog.service.CommentService;
 import jakarta.validation.Valid;
@@ -18,6 +19,9 @@ public class CommentController {
     @Autowired
     CommentService commentService;
 
+    @Autowired
+    LikeCounter likeCounter;
+
     //GET
     //get all comments
     @GetMapping
@@ -49,6 +53,18 @@ public class CommentController {
         }
     }
 
+    //add many comments at once (all or none)
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createComments(@Valid @RequestBody List<@Valid CommentDTO> commentDTOs){
+        try {
+            return new ResponseEntity<>(commentService.createComments(commentDTOs), HttpStatus.CREATED);
+        } catch (NullPointerException | IllegalArgumentException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage()); //if list is empty, too long or has a null comment
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage()); //if a blog id not found or a commenter username doesn't exist
+        }
+    }
+
 
     //PUT
     //update comment
@@ -75,4 +91,27 @@ public class CommentController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage()); //if comment id not found
         }
     }
+
+
+    //like comment (counted in memory, written to the database within blog.likes.flush-ms)
+    @PostMapping("/{id}/likes")
+    public ResponseEntity<?> likeComment(@PathVariable Integer id) {
+        try {
+            likeCounter.likeComment(id);
+            return ResponseEntity.accepted().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage()); //too many pending likes
+        }
+    }
+
+    //unlike comment
+    @DeleteMapping("/{id}/likes")
+    public ResponseEntity<?> unlikeComment(@PathVariable Integer id) {
+        try {
+            likeCounter.unlikeComment(id);
+            return ResponseEntity.accepted().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage()); //too many pending likes
+        }
+    }
 }
@@ -0,0 +1,28 @@
+package com.example.blog.controller;
+
+import com.example.blog.dto.ResourceVersionDTO;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+//conditional GET (If-None-Match / If-Modified-Since) for blog resources
+//the etag is built from the number of blogs and their newest lastModifiedDate, so it changes whenever a blog
+//in the resource is added, removed or modified (comment and tag changes bump lastModifiedDate too)
+final class ConditionalGet {
+    private ConditionalGet() {
+    }
+
+    //true if the client's copy is current - the controller then answers 304 without loading or serializing anything
+    //sets the ETag and Last-Modified headers either way, skipped for missing or empty resources (nothing to cache)
+    static boolean isNotModified(WebRequest request, String resource, ResourceVersionDTO version) {
+        if (version == null || version.getCount() == null || version.getCount() == 0 || version.getLastModified() == null) {
+            return false;
+        }
+        LocalDateTime lastModified = version.getLastModified();
+        long micros = lastModified.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + lastModified.getNano() / 1_000;
+        String eTag = "\"" + resource + "-" + version.getCount() + "-" + Long.toString(micros, 36) + "\"";
+        return request.checkNotModified(eTag, lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.blog.controller;
+
+import com.example.blog.aop.MethodMetricsAspect;
+import com.example.blog.dto.CacheStatsDTO;
+import com.example.blog.dto.CircuitBreakerStatsDTO;
+import com.example.blog.dto.HttpPoolStatsDTO;
+import com.example.blog.dto.LikeCounterStatsDTO;
+import com.example.blog.dto.MethodStatsDTO;
+import com.example.blog.likes.LikeCounter;
+import com.example.blog.dto.NotificationDispatchStatsDTO;
+import com.example.blog.notification.NotificationClient;
+import com.example.blog.notification.NotificationDispatcher;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/metrics")
+@CrossOrigin(origins = "*")
+public class MetricsController {
+    @Autowired
+    NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    PoolingHttpClientConnectionManager httpConnectionManager;
+
+    @Autowired
+    NotificationClient notificationClient;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    LikeCounter likeCounter;
+
+    @Autowired
+    MethodMetricsAspect methodMetricsAspect;
+
+    //GET
+    //get queue depth and send counts of the background notification sender
+    @GetMapping("/notifications")
+    public ResponseEntity<NotificationDispatchStatsDTO> getNotificationStats() {
+        return ResponseEntity.ok(notificationDispatcher.getStats());
+    }
+
+    //get circuit breaker state and bulkhead usage of calls to the notification microservice
+    @GetMapping("/notification-client")
+    public ResponseEntity<CircuitBreakerStatsDTO> getNotificationClientStats() {
+        return ResponseEntity.ok(notificationClient.getStats());
+    }
+
+    //get connection pool usage of the http client used to call the notification microservice
+    @GetMapping("/http-pool")
+    public ResponseEntity<HttpPoolStatsDTO> getHttpPoolStats() {
+        PoolStats stats = httpConnectionManager.getTotalStats();
+        return ResponseEntity.ok(new HttpPoolStatsDTO(stats.getLeased(), stats.getAvailable(), stats.getPending(),
+                stats.getMax(), httpConnectionManager.getDefaultMaxPerRoute()));
+    }
+
+    //get size and hit ratio of every cache
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        List<CacheStatsDTO> caches = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                Cache<Object, Object> nativeCache = cache.getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                Long estimatedBytes = nativeCache.policy().eviction()
+                        .filter(Policy.Eviction::isWeighted)
+                        .map(eviction -> eviction.weightedSize().orElse(0))
+                        .orElse(null);
+                caches.add(new CacheStatsDTO(name, nativeCache.estimatedSize(), stats.hitCount(),
+                        stats.missCount(), stats.hitRate(), stats.evictionCount(), estimatedBytes));
+            }
+        }
+        return ResponseEntity.ok(caches);
+    }
+
+    //get received, pending and flushed counts of the write-behind like counter
+    @GetMapping("/likes")
+    public ResponseEntity<LikeCounterStatsDTO> getLikeStats() {
+        return ResponseEntity.ok(likeCounter.getStats());
+    }
+
+    //get call counts, error rates and latency percentiles of every service method
+    @GetMapping("/methods")
+    public ResponseEntity<List<MethodStatsDTO>> getMethodStats() {
+        return ResponseEntity.ok(methodMetricsAspect.getStats());
+    }
+}
@@ -1,15 +1,20 @@
 package com.example.blog.controller;
 
+import com.example.blog.cache.BlogJsonCache;
+import com.example.blog.dto.TagBulkResultDTO;
 import com.example.blog.dto.TagDTO;
 import com.example.blog.model.Blog;
 import com.example.blog.model.Tag;
 import com.example.blog.service.TagService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -20,6 +25,9 @@ public class TagController {
     @Autowired
     TagService tagService;
 
+    @Autowired
+    BlogJsonCache blogJsonCache;
+
     //GET
     //get all tags
     @GetMapping
@@ -45,8 +53,25 @@ public class TagController {
             return new ResponseEntity<>(tagService.addTags(tagDTOs), HttpStatus.CREATED);
         } catch (NullPointerException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage()); //if tag body is null
-        } catch (DuplicateKeyException e) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage()); //if tag name already exists, cannot have duplicate tag names
+        } catch (DataIntegrityViolationException e) {
+            //if tag name already exists (also when a concurrent request added it first), cannot have duplicate tag names
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage()); //if blog id not found (if any are given)
+        }
+    }
+
+    //add the tags whose names don't exist yet, names that already exist are skipped and listed in the response
+    @PostMapping("/bulk")
+    public ResponseEntity<?> addTagsIfAbsent(@Valid @RequestBody List<@Valid TagDTO> tagDTOs) {
+        try {
+            TagBulkResultDTO result = tagService.addTagsIfAbsent(tagDTOs);
+            return ResponseEntity.status(result.getCreated().isEmpty() ? HttpStatus.OK : HttpStatus.CREATED).body(result);
+        } catch (NullPointerException | IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage()); //if list is empty, too long or has a null tag
+        } catch (DataIntegrityViolationException e) {
+            //a concurrent request added one of the names first, retrying reports it as existing
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage()); //if blog id not found (if any are given)
         }
@@ -92,8 +117,15 @@ public class TagController {
 
     //get blogs by tag id
     @GetMapping("/{id}/blogs")
-    public ResponseEntity<?> getBlogsByTag(@PathVariable Integer id) {
+    public ResponseEntity<?> getBlogsByTag(@PathVariable Integer id, WebRequest request) {
         try {
+            if (ConditionalGet.isNotModified(request, "tag-" + id, tagService.getBlogsVersion(id))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build(); //client's copy is current
+            }
+            if (blogJsonCache.isEnabled()) { //already serialized json, written to the response as is
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                        .body(blogJsonCache.getBlogsByTag(id, () -> tagService.getBlogsByTag(id)));
+            }
             return ResponseEntity.ok(tagService.getBlogsByTag(id));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage()); //if tag id not found
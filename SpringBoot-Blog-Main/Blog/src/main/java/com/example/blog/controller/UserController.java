@@ -1,5 +1,6 @@
 package com.example.blog.controller;
 
+import com.example.blog.cache.BlogJsonCache;
 import com.example.blog.dto.NotificationDTO;
 import com.example.blog.model.Blog;
 import com.example.blog.model.User;
@@ -8,8 +9,10 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -20,6 +23,9 @@ public class UserController {
     @Autowired
     UserService userService;
 
+    @Autowired
+    BlogJsonCache blogJsonCache;
+
     //GET
     //get all users
     @GetMapping
@@ -94,8 +100,15 @@ public class UserController {
 
     //get all blogs by user id
     @GetMapping("/{id}/blogs")
-    public ResponseEntity<?> getBlogsByUser(@PathVariable Integer id) {
+    public ResponseEntity<?> getBlogsByUser(@PathVariable Integer id, WebRequest request) {
         try {
+            if (ConditionalGet.isNotModified(request, "user-" + id, userService.getBlogsVersion(id))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build(); //client's copy is current
+            }
+            if (blogJsonCache.isEnabled()) { //already serialized json, written to the response as is
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                        .body(blogJsonCache.getBlogsByUser(id, () -> userService.getBlogsByUserId(id)));
+            }
             return ResponseEntity.ok(userService.getBlogsByUserId(id));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage()); //if user id not found
@@ -0,0 +1,25 @@
+package com.example.blog.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlogSummaryDTO {
+    private Integer id;
+    private String title;
+    private Integer likes;
+
+    @JsonFormat(pattern="yyyy-MM-dd'T'HH:mm:ss.SSSSSS")
+    private LocalDateTime creationDate;
+
+    @JsonFormat(pattern="yyyy-MM-dd'T'HH:mm:ss.SSSSSS")
+    private LocalDateTime lastModifiedDate;
+
+    private Integer userId;
+}
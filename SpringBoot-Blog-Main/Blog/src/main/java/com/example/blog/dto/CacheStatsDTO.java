@@ -0,0 +1,18 @@
+package com.example.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private String name;
+    private Long size; //approximate number of entries
+    private Long hits;
+    private Long misses;
+    private Double hitRatio; //hits / requests, 1.0 when there were no requests yet
+    private Long evictions; //entries removed for size or age (not explicit invalidations)
+    private Long estimatedBytes; //estimated heap used by the entries, only for caches bounded by size in bytes
+}
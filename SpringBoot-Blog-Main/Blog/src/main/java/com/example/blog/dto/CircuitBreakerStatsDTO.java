@@ -0,0 +1,21 @@
+package com.example.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CircuitBreakerStatsDTO {
+    private String state; //CLOSED, OPEN or HALF_OPEN
+    private Map<String, Long> transitions; //e.g. "CLOSED->OPEN": 2
+    private Long successfulCalls;
+    private Long failedCalls;
+    private Long rejectedByCircuitBreaker;
+    private Long rejectedByBulkhead; //too many calls already in progress
+    private Integer activeCalls;
+    private Integer maxConcurrentCalls;
+}
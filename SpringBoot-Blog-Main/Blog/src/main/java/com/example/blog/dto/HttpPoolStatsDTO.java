@@ -0,0 +1,16 @@
+package com.example.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HttpPoolStatsDTO {
+    private Integer leased; //connections in use
+    private Integer available; //idle connections kept open for reuse
+    private Integer pending; //requests waiting for a connection
+    private Integer max;
+    private Integer maxPerRoute;
+}
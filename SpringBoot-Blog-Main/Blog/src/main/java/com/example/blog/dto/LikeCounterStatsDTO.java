@@ -0,0 +1,18 @@
+package com.example.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeCounterStatsDTO {
+    private Long received; //likes and unlikes accepted since startup
+    private Long pending; //net likes not written to the database yet
+    private Long pendingIds; //blogs and comments with likes not written yet (limited by blog.likes.max-pending-ids)
+    private Long flushed; //net likes written to the database
+    private Long flushes;
+    private Long failedFlushes; //failed flushes, their likes are kept and written with the next flush
+    private Long flushMs; //write-behind interval
+}
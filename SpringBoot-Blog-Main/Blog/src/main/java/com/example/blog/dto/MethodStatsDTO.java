@@ -0,0 +1,20 @@
+package com.example.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MethodStatsDTO {
+    private String method; //class and method name, e.g. BlogService.getBlogById
+    private Long calls;
+    private Long errors; //calls that threw an exception
+    private Double errorRate;
+    private Double meanMs;
+    private Double p50Ms; //latency percentiles, at most ~3% above the real value
+    private Double p99Ms;
+    private Double p999Ms;
+    private Double maxMs;
+}
@@ -0,0 +1,19 @@
+package com.example.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDispatchStatsDTO {
+    private Long outboxDepth; //notifications waiting to be sent
+    private Long deadLettered; //notifications the microservice rejected, kept in the outbox but not sent again
+    private Long sent;
+    private Long failed; //failed sends, retried later
+    private Long batches;
+    private Integer batchSize; //max notifications per batch
+    private Long lingerMs; //wait after a comment so more notifications share a batch
+    private Long pollMs; //retry interval
+}
@@ -0,0 +1,15 @@
+package com.example.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceVersionDTO {
+    private Long count; //number of blogs in the resource (0 if it doesn't exist or is empty)
+    private LocalDateTime lastModified; //newest lastModifiedDate among them
+}
@@ -0,0 +1,17 @@
+package com.example.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIndexStatsDTO {
+    private boolean enabled;
+    private boolean built; //false until the startup build has finished (keyword search uses the JPQL query until then)
+    private Integer blogs; //number of indexed blogs
+    private Integer terms; //number of distinct words
+    private Long postings; //total blog ids across all words
+    private Long estimatedBytes; //approximate heap used by the index
+}
@@ -0,0 +1,16 @@
+package com.example.blog.dto;
+
+import com.example.blog.model.Tag;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagBulkResultDTO {
+    private List<Tag> created; //tags whose names didn't exist yet
+    private List<String> existing; //names that already existed, those tags are left unchanged
+}
@@ -0,0 +1,234 @@
+package com.example.blog.likes;
+
+import com.example.blog.cache.BlogCache;
+import com.example.blog.dto.LikeCounterStatsDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+//counts likes of blogs and comments in memory and writes them to the database in the background (write-behind)
+//a like only adds to a LongAdder (striped counter) per blog/comment - no entity load or save, no row lock, and likes of
+//the same id from many threads don't wait for each other
+//a flush removes the adders it writes, so the map only holds ids liked since the last flush; at most max-pending-ids ids
+//(blogs and comments each) can be pending, likes of further ids are rejected until the next flush (ids are not checked
+//against the database, likes of ids that don't exist are dropped by the flush)
+//every flush-ms the net likes per blog/comment are written in one transaction as batched "likes = likes + delta" updates,
+//ordered by id so concurrent flushes of several instances lock rows in the same order
+//a flush also updates the lastModifiedDate of the changed blogs and drops them from the cache, so reads (and etags) catch up
+//within flush-ms; likes not flushed yet are lost if the process is killed (they are flushed on a normal shutdown)
+@Slf4j
+@Component
+public class LikeCounter {
+    private static final String BLOG_LIKES = "UPDATE blog SET likes = GREATEST(COALESCE(likes, 0) + ?, 0), last_modified_at = ? WHERE id = ?";
+    private static final String COMMENT_LIKES = "UPDATE comment SET likes = GREATEST(COALESCE(likes, 0) + ?, 0) WHERE id = ?";
+    private static final String COMMENT_BLOG_IDS = "SELECT DISTINCT blog_id FROM comment WHERE id IN (:ids)";
+    private static final String TOUCH_BLOG = "UPDATE blog SET last_modified_at = ? WHERE id = ?";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    BlogCache blogCache;
+
+    private final long flushMs;
+    private final int maxPendingIds;
+
+    //net likes per blog/comment since the last flush
+    private final PendingLikes blogLikes = new PendingLikes();
+    private final PendingLikes commentLikes = new PendingLikes();
+
+    private final LongAdder received = new LongAdder();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    private ScheduledExecutorService flusher;
+
+    public LikeCounter(@Value("${blog.likes.flush-ms:1000}") long flushMs,
+                       @Value("${blog.likes.max-pending-ids:100000}") int maxPendingIds) {
+        this.flushMs = flushMs;
+        this.maxPendingIds = maxPendingIds;
+    }
+
+    //flush-ms of 0 turns off background flushing (likes are then only written by flush() and on shutdown)
+    @PostConstruct
+    public void start() {
+        if (flushMs <= 0) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "like-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        flush();
+    }
+
+    public void likeBlog(Integer id) {
+        count(blogLikes, id, 1);
+    }
+
+    public void unlikeBlog(Integer id) {
+        count(blogLikes, id, -1);
+    }
+
+    public void likeComment(Integer id) {
+        count(commentLikes, id, 1);
+    }
+
+    public void unlikeComment(Integer id) {
+        count(commentLikes, id, -1);
+    }
+
+    //write all pending likes, likes of a failed flush are added back and written with the next one
+    //likes of blogs/comments that don't exist (anymore) update no rows and are dropped
+    public synchronized void flush() {
+        SortedMap<Integer, Long> blogDeltas = blogLikes.drain();
+        SortedMap<Integer, Long> commentDeltas = commentLikes.drain();
+        if (blogDeltas.isEmpty() && commentDeltas.isEmpty()) {
+            return;
+        }
+        try {
+            Set<Integer> changedBlogIds = transactionTemplate.execute(status -> write(blogDeltas, commentDeltas));
+            changedBlogIds.forEach(blogCache::invalidate);
+            flushed.addAndGet(sum(blogDeltas) + sum(commentDeltas));
+            flushes.incrementAndGet();
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            blogDeltas.forEach(blogLikes::add);
+            commentDeltas.forEach(commentLikes::add);
+            log.warn("Failed to flush likes of {} blogs and {} comments, retrying with the next flush: {}",
+                    blogDeltas.size(), commentDeltas.size(), e.getMessage());
+        }
+    }
+
+    public LikeCounterStatsDTO getStats() {
+        long pending = blogLikes.sum() + commentLikes.sum();
+        long pendingIds = blogLikes.size() + commentLikes.size();
+        return new LikeCounterStatsDTO(received.sum(), pending, pendingIds, flushed.get(), flushes.get(), failedFlushes.get(), flushMs);
+    }
+
+    private void count(PendingLikes likes, Integer id, long delta) {
+        Objects.requireNonNull(id, "id cannot be null");
+        //soft limit, racing likes of new ids can pass it by a few
+        if (likes.size() >= maxPendingIds && !likes.contains(id)) {
+            throw new IllegalStateException("Too many pending likes, try again later");
+        }
+        likes.add(id, delta);
+        received.increment();
+    }
+
+    private Set<Integer> write(SortedMap<Integer, Long> blogDeltas, SortedMap<Integer, Long> commentDeltas) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Set<Integer> changedBlogIds = new TreeSet<>(blogDeltas.keySet());
+        if (!blogDeltas.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(blogDeltas.size());
+            blogDeltas.forEach((id, delta) -> args.add(new Object[]{delta, now, id}));
+            jdbcTemplate.batchUpdate(BLOG_LIKES, args);
+        }
+        if (!commentDeltas.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(commentDeltas.size());
+            commentDeltas.forEach((id, delta) -> args.add(new Object[]{delta, id}));
+            jdbcTemplate.batchUpdate(COMMENT_LIKES, args);
+
+            //comments are part of their blog's response, so their blogs count as changed too
+            List<Object[]> touches = new ArrayList<>();
+            for (Integer blogId : new TreeSet<>(new NamedParameterJdbcTemplate(jdbcTemplate)
+                    .queryForList(COMMENT_BLOG_IDS, Map.of("ids", commentDeltas.keySet()), Integer.class))) {
+                if (changedBlogIds.add(blogId)) {
+                    touches.add(new Object[]{now, blogId});
+                }
+            }
+            if (!touches.isEmpty()) {
+                jdbcTemplate.batchUpdate(TOUCH_BLOG, touches);
+            }
+        }
+        return changedBlogIds;
+    }
+
+    private static long sum(Map<Integer, Long> deltas) {
+        long sum = 0;
+        for (long delta : deltas.values()) {
+            sum += delta;
+        }
+        return sum;
+    }
+
+    //one LongAdder per id, swapped out by a drain (remove, then sumThenReset) - a like that comes after the remove gets a
+    //new adder and is written with the next flush
+    //a like that looked up its adder just before a drain removed it may add to it after the sumThenReset: it then finds
+    //its adder gone from the map and queues it, and the next drain reads it again (sumThenReset takes every like once)
+    private static class PendingLikes {
+        private final ConcurrentHashMap<Integer, LongAdder> adders = new ConcurrentHashMap<>();
+        private final Queue<Map.Entry<Integer, LongAdder>> removedAdders = new ConcurrentLinkedQueue<>();
+
+        void add(Integer id, long delta) {
+            LongAdder adder = adders.computeIfAbsent(id, key -> new LongAdder());
+            adder.add(delta);
+            if (adders.get(id) != adder) { //drained meanwhile, the like may have missed its sum
+                removedAdders.add(Map.entry(id, adder));
+            }
+        }
+
+        boolean contains(Integer id) {
+            return adders.containsKey(id);
+        }
+
+        int size() {
+            return adders.size();
+        }
+
+        long sum() {
+            long sum = 0;
+            for (LongAdder adder : adders.values()) {
+                sum += adder.sum();
+            }
+            return sum;
+        }
+
+        //net likes since the last drain, sorted by id
+        SortedMap<Integer, Long> drain() {
+            SortedMap<Integer, Long> deltas = new TreeMap<>();
+            for (Map.Entry<Integer, LongAdder> removed; (removed = removedAdders.poll()) != null; ) {
+                deltas.merge(removed.getKey(), removed.getValue().sumThenReset(), Long::sum);
+            }
+            for (Integer id : adders.keySet()) {
+                LongAdder adder = adders.remove(id);
+                if (adder != null) {
+                    deltas.merge(id, adder.sumThenReset(), Long::sum);
+                }
+            }
+            deltas.values().removeIf(delta -> delta == 0);
+            return deltas;
+        }
+    }
+}
@@ -15,7 +15,7 @@ import lombok.ToString;
 public class Address {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_address")
-    @SequenceGenerator(name = "seq_address", allocationSize = 1)
+    @SequenceGenerator(name = "seq_address", allocationSize = 50)
     private Integer id;
 
     @NotBlank(message = "Street cannot be blank or null")
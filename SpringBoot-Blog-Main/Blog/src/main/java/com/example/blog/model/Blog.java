@@ -8,6 +8,7 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.validation.annotation.Validated;
@@ -20,10 +21,12 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_blog_created_at_id", columnList = "created_at, id")) //supports keyset pagination
+@NamedEntityGraph(name = "Blog.tags", attributeNodes = @NamedAttributeNode("tags")) //fetch plan for single blog reads
 public class Blog {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_blog")
-    @SequenceGenerator(name = "seq_blog", allocationSize = 1)
+    @SequenceGenerator(name = "seq_blog", allocationSize = 50)
     private Integer id;
 
     @NotBlank(message = "Blog title cannot be null or blank")
@@ -46,12 +49,13 @@ public class Blog {
 
     //many-to-one relationship with user
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY) //never serialized, so don't load the user (and address) for every blog
     @JoinColumn(name = "user_id", nullable = false) //foreign key cannot be null, blog must have a posting user
     private User user;
 
     //one-to-many relationship with comment
     @OneToMany(mappedBy = "blog", cascade = CascadeType.REMOVE) //deletes comments when blog is deleted
+    @BatchSize(size = 50) //initializes comments of up to 50 loaded blogs in one query instead of one query per blog
     private List<Comment> comments;
 
     //many-to-many relationship with tag (join table code here)
@@ -61,6 +65,7 @@ public class Blog {
             joinColumns = @JoinColumn(name = "blog_id"),
             inverseJoinColumns = @JoinColumn(name = "tag_id")
     )
+    @BatchSize(size = 50)
     private List<Tag> tags;
 
 
@@ -16,7 +16,7 @@ import java.time.LocalDateTime;
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_comment")
-    @SequenceGenerator(name = "seq_comment", allocationSize = 1)
+    @SequenceGenerator(name = "seq_comment", allocationSize = 50)
     private Integer id;
 
     @NotBlank(message = "Comment text cannot be blank or null")
@@ -35,7 +35,7 @@ public class Comment {
 
     //many-to-one relationship with blog
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "blog_id", nullable = false)
     @ToString.Exclude //need to exclude blog from Lombok's @Data toString method prevent infinite recursion > StackOverflow
     private Blog blog;
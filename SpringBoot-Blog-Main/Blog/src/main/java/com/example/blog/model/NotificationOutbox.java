@@ -0,0 +1,41 @@
+package com.example.blog.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+//notification waiting to be sent to the notification microservice
+//saved in the same transaction as its comment, deleted once the microservice has it (see NotificationDispatcher)
+//a row the microservice rejects is kept as a dead letter (not sent again) until dead_lettered_at is cleared by hand
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification_outbox")
+public class NotificationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_notification_outbox")
+    @SequenceGenerator(name = "seq_notification_outbox", allocationSize = 50)
+    private Integer id;
+
+    private String commenterUsername;
+    private Integer bloggerId; //aka userId of poster
+    private Integer commentId;
+    private Integer blogId;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @ColumnDefault("0") //for rows saved before the column existed
+    @Column(nullable = false)
+    private int attempts; //failed sends
+
+    @Column(name = "dead_lettered_at")
+    private LocalDateTime deadLetteredAt;
+}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,10 +15,12 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "uk_tag_name", columnList = "name", unique = true)) //postgres also gets a unique index on lower(name), see TagNameIndexInitializer
+@NamedEntityGraph(name = "Tag.blogs", attributeNodes = @NamedAttributeNode("blogs")) //fetch plan for blogs by tag
 public class Tag {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_tag")
-    @SequenceGenerator(name = "seq_tag", allocationSize = 1)
+    @SequenceGenerator(name = "seq_tag", allocationSize = 50)
     private Integer id;
 
     @NotBlank(message = "Tag name cannot be blank or null")
@@ -29,5 +32,6 @@ public class Tag {
     //many-to-many relationship with blog
     @JsonIgnore
     @ManyToMany(mappedBy = "tags", cascade = {CascadeType.MERGE, CascadeType.PERSIST}) //when tag is added/updated > do the same to blog
+    @BatchSize(size = 50)
     private List<Blog> blogs = new ArrayList<>();
 }
@@ -9,6 +9,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDate;
@@ -19,10 +20,11 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "UserDetails")
+@NamedEntityGraph(name = "User.blogs", attributeNodes = {@NamedAttributeNode("blogs"), @NamedAttributeNode("address")}) //fetch plan for blogs by user (address is eager anyway)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_user")
-    @SequenceGenerator(name = "seq_user", allocationSize = 1)
+    @SequenceGenerator(name = "seq_user", allocationSize = 50)
     private Integer id;
 
     @NotBlank(message = "Username cannot be blank or null")
@@ -48,5 +50,6 @@ public class User {
 
     //one-to-many relationship with blog
     @OneToMany(mappedBy = "user", cascade = CascadeType.REMOVE) //deletes blogs when user deleted
+    @BatchSize(size = 50)
     private List<Blog> blogs;
 }
\ No newline at end of file
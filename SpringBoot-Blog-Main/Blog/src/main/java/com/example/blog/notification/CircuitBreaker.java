@@ -0,0 +1,77 @@
+package com.example.blog.notification;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//CLOSED: calls go through, failure-threshold failures in a row open the circuit
+//OPEN: calls fail fast without touching the network for open-ms
+//HALF_OPEN: after open-ms one probe call is let through - success closes the circuit, failure opens it again
+@Slf4j
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean probeInFlight = false;
+    private final Map<String, Long> transitions = new LinkedHashMap<>();
+
+    public CircuitBreaker(String name, int failureThreshold, long openMs) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+    }
+
+    //false means the call must not be made
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMs) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true; //only one probe at a time
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            openedAt = System.currentTimeMillis();
+            transitionTo(State.OPEN);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    //number of times each state change happened, e.g. "CLOSED->OPEN"
+    public synchronized Map<String, Long> getTransitions() {
+        return new LinkedHashMap<>(transitions);
+    }
+
+    private void transitionTo(State newState) {
+        log.warn("Circuit breaker {} changed from {} to {}", name, state, newState);
+        transitions.merge(state + "->" + newState, 1L, Long::sum);
+        state = newState;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.blog.notification;
+
+import com.example.blog.dto.CircuitBreakerStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+//every call to the notification microservice goes through here so an outage can't tie up the blog's request threads:
+//a circuit breaker stops calling it after repeated failures, and a bulkhead limits how many calls can wait on it at once
+@Component
+public class NotificationClient {
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final int maxConcurrentCalls;
+    private final long bulkheadWaitMs;
+
+    private final AtomicLong successfulCalls = new AtomicLong();
+    private final AtomicLong failedCalls = new AtomicLong();
+    private final AtomicLong rejectedByCircuitBreaker = new AtomicLong();
+    private final AtomicLong rejectedByBulkhead = new AtomicLong();
+
+    public NotificationClient(@Value("${blog.notifications.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                              @Value("${blog.notifications.circuit-breaker.open-ms:10000}") long openMs,
+                              @Value("${blog.notifications.bulkhead.max-concurrent-calls:10}") int maxConcurrentCalls,
+                              @Value("${blog.notifications.bulkhead.wait-ms:0}") long bulkheadWaitMs) {
+        this.circuitBreaker = new CircuitBreaker("notification-service", failureThreshold, openMs);
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.bulkheadWaitMs = bulkheadWaitMs;
+    }
+
+    //runs the call, throws NotificationServiceUnavailableException if it was not allowed or failed
+    public <T> T execute(Supplier<T> call) {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedByBulkhead.incrementAndGet();
+            throw new NotificationServiceUnavailableException("Too many calls to the notification service in progress");
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            rejectedByCircuitBreaker.incrementAndGet();
+            throw new NotificationServiceUnavailableException("Notification service is unavailable");
+        }
+        boolean succeeded = false;
+        try {
+            T result = call.get();
+            succeeded = true;
+            return result;
+        } catch (HttpClientErrorException e) { //4xx - the service answered, the request was wrong
+            succeeded = true;
+            throw e;
+        } catch (RuntimeException e) { //connection refused, timeout or 5xx
+            throw new NotificationServiceUnavailableException("Notification service call failed", e);
+        } finally {
+            //recorded here so anything else thrown (an Error too) counts as a failure and frees the half-open probe
+            if (succeeded) {
+                circuitBreaker.onSuccess();
+                successfulCalls.incrementAndGet();
+            } else {
+                circuitBreaker.onFailure();
+                failedCalls.incrementAndGet();
+            }
+            bulkhead.release();
+        }
+    }
+
+    //runs the call, returns the fallback's result instead if it was not allowed or failed (degraded response)
+    public <T> T execute(Supplier<T> call, Supplier<T> fallback) {
+        try {
+            return execute(call);
+        } catch (NotificationServiceUnavailableException e) {
+            return fallback.get();
+        }
+    }
+
+    public CircuitBreakerStatsDTO getStats() {
+        return new CircuitBreakerStatsDTO(circuitBreaker.getState().name(), circuitBreaker.getTransitions(),
+                successfulCalls.get(), failedCalls.get(), rejectedByCircuitBreaker.get(), rejectedByBulkhead.get(),
+                maxConcurrentCalls - bulkhead.availablePermits(), maxConcurrentCalls);
+    }
+}
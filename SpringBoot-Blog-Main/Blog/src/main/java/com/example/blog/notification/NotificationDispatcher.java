@@ -0,0 +1,215 @@
+package com.example.blog.notification;
+
+import com.example.blog.dto.NotificationDTO;
+import com.example.blog.dto.NotificationDispatchStatsDTO;
+import com.example.blog.model.NotificationOutbox;
+import com.example.blog.repository.INotificationOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//relays notifications from the outbox table to the notification microservice from a background thread
+//comments and their outbox rows are saved in one transaction, so a notification is never lost or sent for a rolled back comment
+//rows are deleted only after the microservice accepted them (at-least-once - the microservice skips comment ids it already has)
+//the relay wakes up right after a comment commits (waiting linger-ms so more notifications share the batch) and also
+//polls every poll-ms to retry anything that failed
+@Slf4j
+@Component
+public class NotificationDispatcher {
+    @Autowired
+    RestTemplate restTemplate;
+
+    @Autowired
+    INotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    NotificationClient notificationClient;
+
+    private final String url;
+    private final int batchSize;
+    private final long lingerMs;
+    private final long pollMs;
+    private final boolean relayEnabled;
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    private Thread sender;
+
+    public NotificationDispatcher(@Value("${blog.notifications.url:http://localhost:8081/notifications/batch}") String url,
+                                  @Value("${blog.notifications.batch-size:50}") int batchSize,
+                                  @Value("${blog.notifications.linger-ms:100}") long lingerMs,
+                                  @Value("${blog.notifications.poll-ms:1000}") long pollMs,
+                                  @Value("${blog.notifications.relay.enabled:true}") boolean relayEnabled) {
+        this.url = url;
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.pollMs = pollMs;
+        this.relayEnabled = relayEnabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!relayEnabled) {
+            return;
+        }
+        sender = new Thread(this::run, "notification-dispatcher");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    //anything not sent yet stays in the outbox and is sent after the next start
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (sender != null) {
+            sender.interrupt();
+            sender.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    //save a notification to the outbox - must be called inside the transaction that saves the comment
+    public void enqueue(NotificationDTO notificationDTO) {
+        NotificationOutbox outbox = new NotificationOutbox();
+        outbox.setCommenterUsername(notificationDTO.getCommenterUsername());
+        outbox.setBloggerId(notificationDTO.getBloggerId());
+        outbox.setCommentId(notificationDTO.getCommentId());
+        outbox.setBlogId(notificationDTO.getBlogId());
+        outboxRepository.save(outbox);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) { //send once the row is visible to the relay
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) { //one pending wake up is enough
+            wakeUps.release();
+        }
+    }
+
+    public NotificationDispatchStatsDTO getStats() {
+        return new NotificationDispatchStatsDTO(outboxRepository.countByDeadLetteredAtIsNull(),
+                outboxRepository.countByDeadLetteredAtIsNotNull(), sent.get(), failed.get(), batches.get(), batchSize, lingerMs, pollMs);
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                if (wakeUps.tryAcquire(pollMs, TimeUnit.MILLISECONDS)) {
+                    Thread.sleep(lingerMs); //let notifications of other comments committing now join the batch
+                    wakeUps.drainPermits();
+                }
+                if (!sendOutbox()) {
+                    Thread.sleep(pollMs); //microservice unavailable, don't retry on every new comment
+                }
+            }
+        } catch (InterruptedException e) {
+            log.info("Notification dispatcher stopped");
+        }
+    }
+
+    //send the outbox oldest first until it is empty, returns false if a batch could not be sent
+    //a batch the microservice rejects is sent again one notification at a time, so only the notifications it rejects on
+    //their own are dead-lettered and the rest still go out (otherwise one bad row would block the outbox forever)
+    boolean sendOutbox() {
+        try {
+            List<NotificationOutbox> rows;
+            do {
+                rows = outboxRepository.findAllByDeadLetteredAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+                if (rows.isEmpty()) {
+                    return true;
+                }
+                try {
+                    send(rows);
+                } catch (HttpClientErrorException e) {
+                    if (!isRejected(e)) {
+                        retryLater(rows, e);
+                        return false;
+                    }
+                    log.warn("Batch of {} notifications rejected by the server ({}), sending them one at a time", rows.size(), e.getStatusCode());
+                    if (!sendOneAtATime(rows)) {
+                        return false;
+                    }
+                } catch (Exception e) {
+                    retryLater(rows, e);
+                    return false;
+                }
+            } while (rows.size() == batchSize);
+            return true;
+        } catch (Exception e) { //database unavailable
+            log.warn("Notification outbox could not be read: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    //post the rows as one batch, delete them once the microservice has them
+    private void send(List<NotificationOutbox> rows) {
+        List<NotificationDTO> batch = rows.stream()
+                .map(row -> new NotificationDTO(row.getCommenterUsername(), row.getBloggerId(), row.getCommentId(), row.getBlogId()))
+                .toList();
+        batches.incrementAndGet();
+        notificationClient.execute(() -> restTemplate.postForEntity(url, batch, Void.class)); //call to microservice endpoint
+        sent.addAndGet(batch.size());
+        outboxRepository.deleteAllByIdInBatch(rows.stream().map(NotificationOutbox::getId).toList());
+    }
+
+    //returns false if the microservice became unavailable, the rows not sent yet are retried later
+    private boolean sendOneAtATime(List<NotificationOutbox> rows) {
+        for (NotificationOutbox row : rows) {
+            try {
+                send(List.of(row));
+            } catch (HttpClientErrorException e) {
+                if (!isRejected(e)) {
+                    retryLater(List.of(row), e);
+                    return false;
+                }
+                failed.incrementAndGet();
+                outboxRepository.deadLetter(row.getId(), LocalDateTime.now());
+                log.error("Notification for comment {} rejected by the server after {} attempts, dead-lettered: {} {}",
+                        row.getCommentId(), row.getAttempts() + 1, e.getStatusCode(), e.getResponseBodyAsString());
+            } catch (Exception e) {
+                retryLater(List.of(row), e);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void retryLater(List<NotificationOutbox> rows, Exception e) {
+        failed.addAndGet(rows.size());
+        log.warn("{} notifications could not be sent to the server, will retry: {}", rows.size(), e.getMessage());
+        outboxRepository.incrementAttempts(rows.stream().map(NotificationOutbox::getId).toList());
+    }
+
+    //the microservice answered that the notifications are invalid or too many - not sent again as they are
+    //other 4xx (not found, unauthorized) are a configuration problem, the notifications are kept for when it is fixed
+    private static boolean isRejected(HttpClientErrorException e) {
+        int status = e.getStatusCode().value();
+        return status == HttpStatus.BAD_REQUEST.value() || status == HttpStatus.PAYLOAD_TOO_LARGE.value()
+                || status == HttpStatus.UNPROCESSABLE_ENTITY.value();
+    }
+}
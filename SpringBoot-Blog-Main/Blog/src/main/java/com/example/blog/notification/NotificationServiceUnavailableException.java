@@ -0,0 +1,12 @@
+package com.example.blog.notification;
+
+//thrown instead of calling the notification microservice when it is known to be down or already at its call limit
+public class NotificationServiceUnavailableException extends RuntimeException {
+    public NotificationServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public NotificationServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,12 +1,20 @@
 package com.example.blog.repository;
 
+import com.example.blog.dto.BlogSummaryDTO;
+import com.example.blog.dto.ResourceVersionDTO;
 import com.example.blog.model.Blog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface IBlogRepository extends JpaRepository<Blog, Integer> {
@@ -17,4 +25,64 @@ public interface IBlogRepository extends JpaRepository<Blog, Integer> {
 
     //query translation: find all blogs from Blog where the title or content contain the keyword
     // (using like and % - anything before or after keyword)
+    // on postgres both sides are served by the lower(title)/lower(content) trigram indexes (see TrigramIndexInitializer)
+
+    //same search as above one page at a time (fallback for full-text search when the search index is not available)
+    @Query("SELECT b FROM Blog b WHERE " +
+            "lower(b.title) LIKE lower(CONCAT('%',:keyword,'%')) OR " +
+            "lower(b.content) LIKE lower(CONCAT('%',:keyword,'%')) " +
+            "ORDER BY b.id DESC")
+    List<Blog> findBlogByKeywordInTitleOrContent(@Param("keyword") String keyword, Pageable pageable);
+
+    //postgres full-text search on the GIN indexed search_vector column (see FullTextSearchInitializer), best matches first
+    @Query(value = "SELECT b.* FROM blog b WHERE b.search_vector @@ websearch_to_tsquery('english', :query) " +
+            "ORDER BY ts_rank(b.search_vector, websearch_to_tsquery('english', :query)) DESC, b.id DESC " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Blog> searchFullText(@Param("query") String query, @Param("limit") int limit, @Param("offset") long offset);
+
+    //get blog by id with its tags fetched in the same query (comments load in one more query)
+    @EntityGraph(value = "Blog.tags", type = EntityGraph.EntityGraphType.LOAD)
+    Optional<Blog> findWithTagsById(Integer id);
+
+    //keyset pagination (newest first) - seeks past the last row of the previous page instead of using OFFSET,
+    //so each page costs the same no matter how deep the client scrolls (uses the created_at/id index on blog)
+    @Query("SELECT b FROM Blog b ORDER BY b.creationDate DESC, b.id DESC")
+    List<Blog> findFirstPage(Pageable pageable);
+
+    @Query("SELECT b FROM Blog b WHERE " +
+            "b.creationDate < :createdAt OR (b.creationDate = :createdAt AND b.id < :id) " +
+            "ORDER BY b.creationDate DESC, b.id DESC")
+    List<Blog> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Integer id, Pageable pageable);
+
+    //summary projection - selects scalar columns only so comments/tags are never loaded (one query per page)
+    @Query("SELECT new com.example.blog.dto.BlogSummaryDTO(b.id, b.title, b.likes, b.creationDate, b.lastModifiedDate, b.user.id) " +
+            "FROM Blog b ORDER BY b.creationDate DESC, b.id DESC")
+    List<BlogSummaryDTO> findSummaryFirstPage(Pageable pageable);
+
+    @Query("SELECT new com.example.blog.dto.BlogSummaryDTO(b.id, b.title, b.likes, b.creationDate, b.lastModifiedDate, b.user.id) " +
+            "FROM Blog b WHERE b.creationDate < :createdAt OR (b.creationDate = :createdAt AND b.id < :id) " +
+            "ORDER BY b.creationDate DESC, b.id DESC")
+    List<BlogSummaryDTO> findSummaryPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Integer id, Pageable pageable);
+
+    //versions for conditional GETs (etag/last-modified) - one aggregate row, no entities loaded
+    //lastModifiedDate is bumped by comment and tag changes too (see touch), so it covers everything a blog response shows
+    @Query("SELECT new com.example.blog.dto.ResourceVersionDTO(count(b), max(b.lastModifiedDate)) FROM Blog b WHERE b.id = :id")
+    ResourceVersionDTO findVersionById(@Param("id") Integer id);
+
+    @Query("SELECT new com.example.blog.dto.ResourceVersionDTO(count(b), max(b.lastModifiedDate)) FROM Blog b WHERE b.user.id = :userId")
+    ResourceVersionDTO findVersionByUserId(@Param("userId") Integer userId);
+
+    @Query("SELECT new com.example.blog.dto.ResourceVersionDTO(count(b), max(b.lastModifiedDate)) FROM Blog b JOIN b.tags t WHERE t.id = :tagId")
+    ResourceVersionDTO findVersionByTagId(@Param("tagId") Integer tagId);
+
+    //mark blogs as modified when their comments or tags changed without the blog itself being saved
+    @Transactional
+    @Modifying
+    @Query("UPDATE Blog b SET b.lastModifiedDate = :now WHERE b.id = :id")
+    void touch(@Param("id") Integer id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Blog b SET b.lastModifiedDate = :now WHERE b.id IN (SELECT bt.id FROM Blog bt JOIN bt.tags t WHERE t.id = :tagId)")
+    void touchAllByTagId(@Param("tagId") Integer tagId, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,34 @@
+package com.example.blog.repository;
+
+import com.example.blog.model.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface INotificationOutboxRepository extends JpaRepository<NotificationOutbox, Integer> {
+    //oldest notifications still to be sent first (dead letters are skipped), one batch at a time
+    List<NotificationOutbox> findAllByDeadLetteredAtIsNullOrderByIdAsc(Pageable pageable);
+
+    long countByDeadLetteredAtIsNull();
+
+    long countByDeadLetteredAtIsNotNull();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.attempts = o.attempts + 1 WHERE o.id IN :ids")
+    void incrementAttempts(@Param("ids") Collection<Integer> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.attempts = o.attempts + 1, o.deadLetteredAt = :now WHERE o.id = :id")
+    void deadLetter(@Param("id") Integer id, @Param("now") LocalDateTime now);
+}
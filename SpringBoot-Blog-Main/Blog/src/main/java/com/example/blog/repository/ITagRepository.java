@@ -1,10 +1,33 @@
 package com.example.blog.repository;
 
+import com.example.blog.configuration.CacheConfig;
 import com.example.blog.model.Tag;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ITagRepository extends JpaRepository<Tag, Integer> {
     public Tag findByName(String name);
+
+    //id of the tag with this name (null if none) - cached, the entity is loaded by id where it is needed
+    @Cacheable(CacheConfig.TAG_IDS_BY_NAME) //evicted through NaturalKeyCache when tags are added, renamed or deleted
+    @Query("SELECT t.id FROM Tag t WHERE t.name = :name")
+    Integer findIdByName(@Param("name") String name);
+
+    //tags matching any of the lower case names in one query, ignoring the case of the stored names
+    //(uses the unique index on lower(name) on postgres)
+    @Query("SELECT t FROM Tag t WHERE lower(t.name) IN :names")
+    List<Tag> findByNameIn(@Param("names") Collection<String> names);
+
+    //get tag by id with blogs fetched in the same query
+    @EntityGraph(value = "Tag.blogs", type = EntityGraph.EntityGraphType.LOAD)
+    Optional<Tag> findWithBlogsById(Integer id);
 }
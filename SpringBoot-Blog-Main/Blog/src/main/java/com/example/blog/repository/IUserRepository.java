@@ -1,10 +1,26 @@
 package com.example.blog.repository;
 
+import com.example.blog.configuration.CacheConfig;
 import com.example.blog.model.User;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface IUserRepository extends JpaRepository<User, Integer> {
     User findByUsername(String username);
+
+    //id of the user with this username (null if none) - cached, the entity is loaded by id where it is needed
+    @Cacheable(CacheConfig.USER_IDS_BY_USERNAME) //evicted through NaturalKeyCache when users are added, renamed or deleted
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Integer findIdByUsername(@Param("username") String username);
+
+    //get user by id with blogs fetched in the same query
+    @EntityGraph(value = "User.blogs", type = EntityGraph.EntityGraphType.LOAD)
+    Optional<User> findWithBlogsById(Integer id);
 }
@@ -0,0 +1,306 @@
+package com.example.blog.search;
+
+import com.example.blog.dto.SearchIndexStatsDTO;
+import com.example.blog.model.Blog;
+import com.example.blog.repository.IBlogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//in-memory inverted index of blog title + content (term -> sorted int array of blog ids)
+//used for keyword search when the database schema can't be changed for a search index
+//matches whole words (all query words must appear), unlike the JPQL query which matches any substring
+@Slf4j
+@Component
+public class BlogSearchIndex {
+    private static final int BUILD_PAGE_SIZE = 500;
+
+    @Autowired
+    IBlogRepository blogRepository;
+
+    private final boolean enabled;
+    private final int minTokenLength;
+    private final Set<String> stopWords;
+
+    private IndexData data = new IndexData(); //replaced by build, guarded by lock
+    private List<PendingWrite> pendingWrites; //writes made during a build, replayed on the built index before it is used
+    private volatile boolean built = false;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public BlogSearchIndex(@Value("${blog.search.index.enabled:false}") boolean enabled,
+                           @Value("${blog.search.index.min-token-length:2}") int minTokenLength,
+                           @Value("${blog.search.index.stop-words:a,an,and,are,as,at,be,by,for,in,is,it,of,on,or,the,to,with}") String stopWords) {
+        this.enabled = enabled;
+        this.minTokenLength = minTokenLength;
+        this.stopWords = new HashSet<>();
+        for (String stopWord : stopWords.split(",")) {
+            if (!stopWord.isBlank()) {
+                this.stopWords.add(stopWord.trim().toLowerCase());
+            }
+        }
+        this.pendingWrites = enabled ? new ArrayList<>() : null; //requests can change blogs before the startup build begins
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //false until the first build has finished, searches before that would miss most blogs
+    public boolean isReady() {
+        return enabled && built;
+    }
+
+    //build the index from the blog table one page at a time so the whole table is never in memory at once
+    //the pages are indexed into a new index while searches keep using the current one; blogs written meanwhile are queued
+    //and replayed on the new index when it is swapped in, so a page read before a write can't undo it
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            if (pendingWrites == null) { //a rebuild
+                pendingWrites = new ArrayList<>();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexData newData = new IndexData();
+        try {
+            PageRequest pageRequest = PageRequest.of(0, BUILD_PAGE_SIZE, Sort.by("id"));
+            Page<Blog> page;
+            do {
+                page = blogRepository.findAll(pageRequest);
+                for (Blog blog : page.getContent()) {
+                    newData.put(blog.getId(), tokenize(blog.getTitle() + " " + blog.getContent()));
+                }
+                pageRequest = pageRequest.next();
+            } while (page.hasNext());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null; //the current index has every write (keyword search uses JPQL if it was never built)
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Blog search index could not be built: {}", e.getMessage());
+            return;
+        }
+
+        int replayed;
+        int blogs;
+        lock.writeLock().lock();
+        try {
+            replayed = pendingWrites.size();
+            for (PendingWrite write : pendingWrites) {
+                if (write.terms() == null) {
+                    newData.remove(write.id());
+                } else {
+                    newData.put(write.id(), write.terms());
+                }
+            }
+            data = newData;
+            pendingWrites = null;
+            built = true;
+            blogs = newData.documentTerms.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Blog search index built with {} blogs ({} written during the build) in {} ms", blogs, replayed,
+                System.currentTimeMillis() - start);
+    }
+
+    //add or re-index a blog
+    public void index(Blog blog) {
+        if (!enabled || blog == null || blog.getId() == null) {
+            return;
+        }
+        int id = blog.getId();
+        Set<String> terms = tokenize(blog.getTitle() + " " + blog.getContent());
+
+        lock.writeLock().lock();
+        try {
+            data.put(id, terms);
+            if (pendingWrites != null) {
+                pendingWrites.add(new PendingWrite(id, terms));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            data.remove(id);
+            if (pendingWrites != null) {
+                pendingWrites.add(new PendingWrite(id, null));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //ids of blogs containing every word of the query, in ascending order
+    public int[] search(String query) {
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new int[0];
+        }
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            for (String term : terms) {
+                PostingList postingList = data.postings.get(term);
+                if (postingList == null) {
+                    return new int[0]; //a word with no matches means no blog can contain all words
+                }
+                lists.add(postingList);
+            }
+            lists.sort(Comparator.comparingInt(postingList -> postingList.size)); //intersect starting from the rarest word
+            int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+            int resultSize = result.length;
+            for (int i = 1; i < lists.size() && resultSize > 0; i++) {
+                resultSize = lists.get(i).retainAll(result, resultSize);
+            }
+            return Arrays.copyOf(result, resultSize);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //lowercase words split on anything that isn't a letter or digit, without stop words and short words
+    public Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && token.length() >= minTokenLength && !stopWords.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    //approximate heap used by the index (object headers, map entries, strings and arrays)
+    public SearchIndexStatsDTO getStats() {
+        lock.readLock().lock();
+        try {
+            long postingCount = 0;
+            long bytes = 0;
+            for (Map.Entry<String, PostingList> entry : data.postings.entrySet()) {
+                PostingList postingList = entry.getValue();
+                postingCount += postingList.size;
+                bytes += 32 + 24 + 16 + entry.getKey().length(); //map entry + string + its byte array
+                bytes += 24 + 16 + 4L * postingList.ids.length; //posting list + its int array (including spare capacity)
+            }
+            for (String[] terms : data.documentTerms.values()) {
+                bytes += 32 + 16 + 16 + 4L * terms.length; //map entry + boxed id + array of (shared) term references
+            }
+            return new SearchIndexStatsDTO(enabled, built, data.documentTerms.size(), data.postings.size(), postingCount, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //the words of each blog and the blogs of each word
+    private static class IndexData {
+        private final Map<String, PostingList> postings = new HashMap<>();
+        private final Map<Integer, String[]> documentTerms = new HashMap<>(); //needed to remove a blog's old terms on update/delete
+
+        void put(int id, Set<String> terms) {
+            remove(id);
+            String[] storedTerms = new String[terms.size()];
+            int i = 0;
+            for (String term : terms) {
+                PostingList postingList = postings.computeIfAbsent(term, PostingList::new);
+                postingList.add(id);
+                storedTerms[i++] = postingList.term; //share the map key instead of keeping another copy of the word
+            }
+            documentTerms.put(id, storedTerms);
+        }
+
+        void remove(int id) {
+            String[] oldTerms = documentTerms.remove(id);
+            if (oldTerms == null) {
+                return;
+            }
+            for (String term : oldTerms) {
+                PostingList postingList = postings.get(term);
+                if (postingList != null && postingList.remove(id) && postingList.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    //a blog indexed (terms) or removed (null terms) while the index was being built
+    private record PendingWrite(int id, Set<String> terms) {
+    }
+
+    //sorted, growable int array of blog ids (no boxing)
+    static class PostingList {
+        private final String term;
+        private int[] ids = new int[4];
+        private int size = 0;
+
+        PostingList(String term) {
+            this.term = term;
+        }
+
+        void add(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            if (size > 0 && size < ids.length / 4) { //give back memory when mostly empty
+                ids = Arrays.copyOf(ids, ids.length / 2);
+            }
+            return true;
+        }
+
+        //keeps only candidates that are also in this list, returns the new candidate count
+        int retainAll(int[] candidates, int candidateCount) {
+            int kept = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                if (Arrays.binarySearch(ids, 0, size, candidates[i]) >= 0) {
+                    candidates[kept++] = candidates[i];
+                }
+            }
+            return kept;
+        }
+    }
+}
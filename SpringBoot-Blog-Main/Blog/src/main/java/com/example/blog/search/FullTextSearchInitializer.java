@@ -0,0 +1,76 @@
+package com.example.blog.search;
+
+import com.example.blog.configuration.Databases;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+//adds the postgres full-text search column and index to the blog table (JPA can't map a generated tsvector or a GIN index)
+//the column is generated by postgres, so it is kept up to date on every insert/update without any application code
+//adding the column rewrites the table under an exclusive lock, so it is only done here while the table is empty (a new
+//database) - an existing table is migrated with db/full-text-search.sql, until then keyword search uses the JPQL query
+//the index is built with CREATE INDEX CONCURRENTLY (blog writes go on meanwhile), which needs autocommit: this runs
+//outside of any transaction
+@Slf4j
+@Component
+public class FullTextSearchInitializer {
+    private static final String ADD_COLUMN = "ALTER TABLE blog ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+            "GENERATED ALWAYS AS (setweight(to_tsvector('english', coalesce(title, '')), 'A') || " +
+            "setweight(to_tsvector('english', coalesce(content, '')), 'B')) STORED"; //title matches rank higher
+    private static final String COLUMN_EXISTS = "SELECT count(*) FROM information_schema.columns " +
+            "WHERE table_schema = current_schema() AND table_name = 'blog' AND column_name = 'search_vector'";
+    //null if there is no index, false if a concurrent build failed and left an invalid one behind
+    private static final String INDEX_VALID = "SELECT i.indisvalid FROM pg_index i " +
+            "WHERE i.indexrelid = to_regclass('idx_blog_search_vector')";
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${blog.search.full-text.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean available = false;
+
+    @EventListener(ApplicationReadyEvent.class) //runs after hibernate has created/updated the tables
+    public void createSearchIndex() {
+        if (!enabled || !Databases.isPostgres(dataSource)) {
+            log.info("Full-text search index not created, keyword search will use the JPQL query");
+            return;
+        }
+        try {
+            if (jdbcTemplate.queryForObject(COLUMN_EXISTS, Integer.class) == 0) {
+                if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM blog)", Boolean.class))) {
+                    log.warn("Full-text search column not added, the blog table has rows and adding it locks the table " +
+                            "while it is rewritten - run db/full-text-search.sql, keyword search will use the JPQL query until then");
+                    available = false;
+                    return;
+                }
+                jdbcTemplate.execute(ADD_COLUMN);
+            }
+            Boolean valid = jdbcTemplate.query(INDEX_VALID, rs -> rs.next() ? rs.getBoolean(1) : null);
+            if (Boolean.FALSE.equals(valid)) {
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS idx_blog_search_vector");
+            }
+            if (!Boolean.TRUE.equals(valid)) {
+                jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_blog_search_vector ON blog USING GIN (search_vector)");
+            }
+            available = true;
+        } catch (Exception e) {
+            available = false;
+            log.warn("Full-text search index could not be created, keyword search will use the JPQL query: {}", e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+}
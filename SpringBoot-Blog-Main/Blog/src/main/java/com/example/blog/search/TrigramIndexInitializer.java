@@ -0,0 +1,43 @@
+package com.example.blog.search;
+
+import com.example.blog.configuration.Databases;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+//adds pg_trgm GIN indexes on lower(title) and lower(content) so the '%keyword%' LIKE in findBlogByKeywordInTitleOrContent
+//is answered from the indexes instead of scanning every blog (expressions match the JPQL exactly, so the query is unchanged)
+//without the extension (other databases, no permission to create it) the same query still works, just with a table scan
+@Slf4j
+@Component
+public class TrigramIndexInitializer {
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${blog.search.trigram.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class) //runs after hibernate has created/updated the tables
+    public void createTrigramIndexes() {
+        if (!enabled || !Databases.isPostgres(dataSource)) {
+            log.info("Trigram indexes not created, keyword search will scan the blog table");
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_blog_title_trgm ON blog USING GIN (lower(title) gin_trgm_ops)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_blog_content_trgm ON blog USING GIN (lower(content) gin_trgm_ops)");
+        } catch (Exception e) {
+            log.warn("Trigram indexes could not be created, keyword search will scan the blog table: {}", e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.example.blog.service;
 
+import com.example.blog.cache.BlogCache;
+import com.example.blog.cache.NaturalKeyCache;
 import com.example.blog.dto.BlogDTO;
+import com.example.blog.dto.BlogSummaryDTO;
+import com.example.blog.dto.CursorPageDTO;
+import com.example.blog.dto.ResourceVersionDTO;
+import com.example.blog.dto.SearchIndexStatsDTO;
 import com.example.blog.model.Blog;
 import com.example.blog.model.Comment;
 import com.example.blog.model.Tag;
@@ -9,15 +15,31 @@ import com.example.blog.repository.IBlogRepository;
 import com.example.blog.repository.ICommentRepository;
 import com.example.blog.repository.ITagRepository;
 import com.example.blog.repository.IUserRepository;
+import com.example.blog.search.BlogSearchIndex;
+import com.example.blog.search.FullTextSearchInitializer;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 public class BlogService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_SIZE = 500;
+
     @Autowired
     IBlogRepository blogRepository;
 
@@ -33,7 +55,20 @@ public class BlogService {
     @Autowired
     CommentService commentService;
 
-    private Blog mapToBlog(BlogDTO blogDTO, User existingUser) throws Exception {
+    @Autowired
+    FullTextSearchInitializer fullTextSearch;
+
+    @Autowired
+    BlogSearchIndex searchIndex;
+
+    @Autowired
+    NaturalKeyCache naturalKeyCache;
+
+    @Autowired
+    BlogCache blogCache;
+
+    //package-private for BlogMappingBenchmark (Benchmarks module)
+    Blog mapToBlog(BlogDTO blogDTO, User existingUser, Map<Integer, Tag> tagsById) {
         Blog blog = new Blog(); //create new blog
         blog.setTitle(blogDTO.getTitle());
         blog.setContent(blogDTO.getContent());
@@ -45,25 +80,118 @@ public class BlogService {
         blog.setUser(existingUser);
 
         if (blogDTO.getTagIds() != null) { //if list of tag ids is provided, convert to list of tag objects
-            List<Integer> tagIds = blogDTO.getTagIds();
             List<Tag> tags = new ArrayList<>(); //empty list to hold tags
-            for (Integer tagId : tagIds) {
-                Tag tagToAdd = tagRepository.findById(tagId).orElseThrow(() -> new Exception("Tag with id " + tagId + " not found"));
-                tags.add(tagToAdd);
+            for (Integer tagId : new LinkedHashSet<>(blogDTO.getTagIds())) { //a tag is linked once even if its id is repeated
+                if (tagId != null) {
+                    tags.add(tagsById.get(tagId));
+                }
             }
             blog.setTags(tags); //set tags of blog to list created above
         }
         return blog;
     }
 
+    //tags for the tag ids of the given blogs, one query for all of them
+    private Map<Integer, Tag> findTags(List<BlogDTO> blogDTOs) throws Exception {
+        List<Integer> tagIds = new ArrayList<>();
+        for (BlogDTO blogDTO : blogDTOs) {
+            if (blogDTO != null && blogDTO.getTagIds() != null) {
+                tagIds.addAll(blogDTO.getTagIds());
+            }
+        }
+        return IdLookup.findAllOrThrow(tagIds, tagRepository::findAllById, Tag::getId, "Tag");
+    }
+
     //get all blogs
     public List<Blog> getAllBlogs() {
         return blogRepository.findAll();
     }
 
+    //get page of blogs (newest first) using keyset pagination
+    public CursorPageDTO<Blog> getBlogsPage(Integer limit, String cursor) {
+        PageRequest pageRequest = toPageRequest(limit);
+
+        List<Blog> blogs;
+        if (cursor == null || cursor.isBlank()) {
+            blogs = blogRepository.findFirstPage(pageRequest);
+        } else {
+            String[] position = decodeCursor(cursor);
+            blogs = blogRepository.findPageAfter(LocalDateTime.parse(position[0]), Integer.valueOf(position[1]), pageRequest);
+        }
+        return toCursorPage(blogs, limit, blog -> encodeCursor(blog.getCreationDate(), blog.getId()));
+    }
+
+    //get page of blog summaries (scalar columns only, no comments or tags loaded)
+    public CursorPageDTO<BlogSummaryDTO> getBlogSummariesPage(Integer limit, String cursor) {
+        PageRequest pageRequest = toPageRequest(limit);
+
+        List<BlogSummaryDTO> summaries;
+        if (cursor == null || cursor.isBlank()) {
+            summaries = blogRepository.findSummaryFirstPage(pageRequest);
+        } else {
+            String[] position = decodeCursor(cursor);
+            summaries = blogRepository.findSummaryPageAfter(LocalDateTime.parse(position[0]), Integer.valueOf(position[1]), pageRequest);
+        }
+        return toCursorPage(summaries, limit, summary -> encodeCursor(summary.getCreationDate(), summary.getId()));
+    }
+
+    private PageRequest toPageRequest(Integer limit) {
+        validateLimit(limit);
+        return PageRequest.ofSize(limit + 1); //fetch one extra row to know if there is a next page
+    }
+
+    private void validateLimit(Integer limit) {
+        if (limit == null || limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private <T> CursorPageDTO<T> toCursorPage(List<T> rows, int limit, Function<T, String> cursorOf) {
+        boolean hasNext = rows.size() > limit;
+        if (hasNext) {
+            rows = rows.subList(0, limit);
+        }
+        String nextCursor = hasNext ? cursorOf.apply(rows.get(rows.size() - 1)) : null;
+        return new CursorPageDTO<>(rows, nextCursor, hasNext);
+    }
+
+    //cursor is an opaque token of the last row's creation date and id
+    private String encodeCursor(LocalDateTime creationDate, Integer id) {
+        String position = creationDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            LocalDateTime.parse(position[0]); //validate both parts before querying
+            Integer.valueOf(position[1]);
+            return position;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor " + cursor + " is not valid");
+        }
+    }
+
     //get blog by id
+    //served from the blog cache, so comments are loaded here (not while serializing) to cache the complete blog
+    @Transactional(readOnly = true)
     public Blog getBlogById(Integer id) throws Exception {
-        return blogRepository.findById(id).orElseThrow(() -> new Exception("Blog with id " + id + " not found"));
+        Blog blog = blogCache.get(id, blogId -> blogRepository.findWithTagsById(blogId)
+                .map(foundBlog -> {
+                    Hibernate.initialize(foundBlog.getComments());
+                    return foundBlog;
+                })
+                .orElse(null));
+        if (blog == null) {
+            throw new Exception("Blog with id " + id + " not found");
+        }
+        return blog;
+    }
+
+
+    //version of a blog for conditional GETs (count is 0 if it doesn't exist)
+    public ResourceVersionDTO getBlogVersion(Integer id) {
+        return blogRepository.findVersionById(id);
     }
 
 
@@ -73,16 +201,52 @@ public class BlogService {
             Integer userId = blogDTO.getUserId();
             User existingUser = userRepository.findById(userId).orElseThrow(() -> new Exception("User with id " + userId + " not found"));
 
-            Blog blog = mapToBlog(blogDTO, existingUser);
+            Blog blog = mapToBlog(blogDTO, existingUser, findTags(List.of(blogDTO)));
             existingUser.getBlogs().add(blog);
             userRepository.save(existingUser);
-            return blogRepository.save(blog);
+            Blog savedBlog = blogRepository.save(blog);
+            searchIndex.index(savedBlog); //keep in-memory search index up to date (no-op when disabled)
+            blogCache.invalidate(savedBlog.getId()); //new blog belongs in the user's cached blog list
+            return savedBlog;
         } else {
             throw new NullPointerException("Blog cannot be null");
         }
     }
 
 
+    //create many blogs at once, all or none (users and tags are checked before anything is saved)
+    //blogs and their tag links are inserted in jdbc batches when the transaction commits
+    @Transactional
+    public List<Blog> createBlogs(List<BlogDTO> blogDTOs) throws Exception {
+        if (blogDTOs == null || blogDTOs.isEmpty()) {
+            throw new NullPointerException("Blogs cannot be null or empty");
+        }
+        if (blogDTOs.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " blogs can be created at once");
+        }
+        Map<Integer, Tag> tagsById = findTags(blogDTOs); //tags of all blogs in one query
+        Map<Integer, User> users = new HashMap<>(); //each user is loaded once, not once per blog
+        List<Blog> blogs = new ArrayList<>();
+        for (BlogDTO blogDTO : blogDTOs) {
+            if (blogDTO == null) {
+                throw new NullPointerException("Blog cannot be null");
+            }
+            Integer userId = blogDTO.getUserId();
+            User existingUser = users.get(userId);
+            if (existingUser == null) {
+                existingUser = userRepository.findById(userId).orElseThrow(() -> new Exception("User with id " + userId + " not found"));
+                users.put(userId, existingUser);
+            }
+            blogs.add(mapToBlog(blogDTO, existingUser, tagsById)); //not added to user.getBlogs(), that would load all of the user's blogs
+        }
+        List<Blog> savedBlogs = blogRepository.saveAll(blogs);
+        for (Blog savedBlog : savedBlogs) {
+            searchIndex.index(savedBlog);
+            blogCache.invalidate(savedBlog.getId());
+        }
+        return savedBlogs;
+    }
+
     //update blog
     public Blog updateBlog(Integer id, Blog blog) throws Exception {
         Blog existingBlog = blogRepository.findById(id).orElseThrow(() -> new Exception("Blog with id " + id + " not found"));
@@ -95,7 +259,10 @@ public class BlogService {
                 existingBlog.setLikes(blog.getLikes());
             }
             //last modified date updates automatically, creation date does not change
-            return blogRepository.save(existingBlog);
+            Blog savedBlog = blogRepository.save(existingBlog);
+            searchIndex.index(savedBlog); //re-index new title/content
+            blogCache.invalidate(id);
+            return savedBlog;
         } else {
             throw new NullPointerException("Blog cannot be null");
         }
@@ -105,31 +272,35 @@ public class BlogService {
     public void deleteBlog(Integer id) throws Exception {
         Blog blog = blogRepository.findById(id).orElseThrow(() -> new Exception("Blog with id " + id + " not found"));
         blogRepository.delete(blog);
+        searchIndex.remove(id);
+        blogCache.invalidate(id);
     }
 
 
     //additional functionalities
     //add new comment to blog
+    @Transactional //comment and its notification (outbox row) are saved together or not at all
     public Blog addCommentToBlog(Integer id, Comment comment) throws Exception {
         Blog existingBlog = blogRepository.findById(id).orElseThrow(() -> new Exception("Blog with id " + id + " not found"));
 
         if(comment !=null) {
             String username = comment.getCommenterUsername();
-            User existingUser = userRepository.findByUsername(username); //confirm username exists
+            Integer existingUserId = userRepository.findIdByUsername(username); //confirm username exists
 
             //set likes to 0 if given null
             if(comment.getLikes() == null) {
                 comment.setLikes(0);
             }
 
-            if(existingUser != null) {
+            if(existingUserId != null) {
                 comment.setBlog(existingBlog);
                 existingBlog.getComments().add(comment);
+                existingBlog.setLastModifiedDate(LocalDateTime.now()); //comments are part of the blog's etag
 
                 commentRepository.save(comment); //save comment before communicating with notification to pass comment ID
                 //sending notification to microservice
                 commentService.createNotification(comment, existingBlog); //pass parameters to method that communicates with notification microservice
-
+                blogCache.invalidate(id);
 
                 return blogRepository.save(existingBlog);
             } else {
@@ -142,11 +313,17 @@ public class BlogService {
     }
 
     //get blogs by keyword
-    //using JPQL query from repository
+    //using JPQL query from repository (or the in-memory search index when enabled and built)
     public List<Blog> getBlogsByKeyword(String keyword) throws Exception {
         //filter to find blog text containing keyword
         if (!keyword.isBlank()) { //keyword not blank (including whitespace) //note:request param cannot be null unless specified to be
-            List<Blog> matchingBlogs = blogRepository.findBlogByKeywordInTitleOrContent(keyword);
+            List<Blog> matchingBlogs;
+            if (searchIndex.isReady()) {
+                List<Integer> blogIds = Arrays.stream(searchIndex.search(keyword)).boxed().toList();
+                matchingBlogs = blogIds.isEmpty() ? new ArrayList<>() : blogRepository.findAllById(blogIds);
+            } else {
+                matchingBlogs = blogRepository.findBlogByKeywordInTitleOrContent(keyword);
+            }
 
             if (!matchingBlogs.isEmpty()) {
                 return matchingBlogs;
@@ -159,23 +336,50 @@ public class BlogService {
 
     }
 
+    //get size and memory footprint of the in-memory search index
+    public SearchIndexStatsDTO getSearchIndexStats() {
+        return searchIndex.getStats();
+    }
+
+    //search blogs (ranked full-text search when the postgres search index exists, otherwise the keyword query)
+    public List<Blog> searchBlogs(String query, Integer page, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be a blank or empty string");
+        }
+        if (page == null || page < 0) {
+            throw new IllegalArgumentException("Page cannot be negative");
+        }
+        validateLimit(size);
+        PageRequest pageRequest = PageRequest.of(page, size);
+
+        if (fullTextSearch.isAvailable()) {
+            return blogRepository.searchFullText(query, pageRequest.getPageSize(), pageRequest.getOffset());
+        }
+        return blogRepository.findBlogByKeywordInTitleOrContent(query, pageRequest);
+    }
+
     //add new tag to blog
     public Blog addTagToBlog(Integer id, Tag tag) throws Exception {
         Blog existingBlog = blogRepository.findById(id).orElseThrow(() -> new Exception("Blog with id " + id + " not found"));
         if (tag != null) {
             String tagName = tag.getName().toLowerCase(); //get tag name
-            Tag matchingTag = tagRepository.findByName(tagName); //see if tag exists
+            Integer matchingTagId = tagRepository.findIdByName(tagName); //see if tag exists
 
-            if (matchingTag != null) { //if a matching tag name is found, throw exception
+            if (matchingTagId != null) { //if a matching tag name is found, throw exception
                 throw new DuplicateKeyException("Tag with name " + tagName + " already exists"); //stops here if match found
             }
+            tag.setName(tagName); //stored lower case like every other tag, the unique index on name relies on it
         } else {
             throw new NullPointerException("Tag cannot be null");
         }
 
         existingBlog.getTags().add(tag); //add existing tag to existing blog
+        existingBlog.setLastModifiedDate(LocalDateTime.now()); //tags are part of the blog's etag
 
-        return blogRepository.save(existingBlog); //save to blog will merge/persist to tag
+        Blog savedBlog = blogRepository.save(existingBlog); //save to blog will merge/persist to tag
+        naturalKeyCache.evictTag(tag.getName().toLowerCase()); //drop the cached "not found" from the check above
+        blogCache.invalidate(id);
+        return savedBlog;
     }
 
     //delete tag from blog
@@ -184,8 +388,11 @@ public class BlogService {
         Tag existingTag = tagRepository.findById(tagId).orElseThrow(() -> new Exception("Tag with id " + tagId + " not found"));
 
         existingBlog.getTags().remove(existingTag);
+        existingBlog.setLastModifiedDate(LocalDateTime.now());
 
-        return blogRepository.save(existingBlog);
+        Blog savedBlog = blogRepository.save(existingBlog);
+        blogCache.invalidate(id);
+        return savedBlog;
     }
 
 }
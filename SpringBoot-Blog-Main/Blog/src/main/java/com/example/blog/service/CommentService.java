@@ -1,21 +1,25 @@
 package com.example.blog.service;
 
+import com.example.blog.cache.BlogCache;
 import com.example.blog.dto.CommentDTO;
 import com.example.blog.dto.NotificationDTO;
 import com.example.blog.model.Blog;
 import com.example.blog.model.Comment;
-import com.example.blog.model.User;
+import com.example.blog.notification.NotificationDispatcher;
 import com.example.blog.repository.IBlogRepository;
 import com.example.blog.repository.ICommentRepository;
 import com.example.blog.repository.IUserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @Service
 public class CommentService {
+    private static final int MAX_BULK_SIZE = 500;
+
     @Autowired
     ICommentRepository commentRepository;
 
@@ -26,7 +30,10 @@ public class CommentService {
     IUserRepository userRepository;
 
     @Autowired
-    private RestTemplate restTemplate;
+    NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    BlogCache blogCache;
 
     private Comment mapToComment(CommentDTO commentDTO, Blog existingBlog) throws Exception {
         Comment comment = new Comment();
@@ -52,23 +59,26 @@ public class CommentService {
     }
 
     //add comment
+    @Transactional //comment and its notification (outbox row) are saved together or not at all
     public Comment createComment(CommentDTO commentDTO) throws Exception {
         if(commentDTO != null) {
             Integer blogId = commentDTO.getBlogId();
             Blog existingBlog = blogRepository.findById(blogId).orElseThrow(() -> new Exception("Blog with id " + blogId + " not found"));
 
             String username = commentDTO.getCommenterUsername();
-            User existingUser = userRepository.findByUsername(username);
-            if(existingUser != null) { //ensure commenter user exists as user
+            Integer existingUserId = userRepository.findIdByUsername(username);
+            if(existingUserId != null) { //ensure commenter user exists as user
 
                 Comment comment = mapToComment(commentDTO, existingBlog); //map dto to comment object in order to save
                 existingBlog.getComments().add(comment);
+                existingBlog.setLastModifiedDate(LocalDateTime.now()); //comments are part of the blog's etag
                 blogRepository.save(existingBlog);
 
                 comment.setBlog(existingBlog);
                 Comment savedComment = commentRepository.save(comment); //save before notification sent so commentID can be passed
                 //sending notification to microservice
                 createNotification(comment, existingBlog); //pass parameters to method that communicates with notification microservice
+                blogCache.invalidate(blogId);
 
                 return savedComment; //returning saved comment - needed to instantiate to pass testing
             } else {
@@ -79,19 +89,58 @@ public class CommentService {
         }
     }
 
+    //add many comments at once, all or none (blogs and commenters are checked before anything is saved)
+    //comments, their outbox rows and the blogs' new lastModifiedDate are written in jdbc batches when the transaction commits
+    @Transactional
+    public List<Comment> createComments(List<CommentDTO> commentDTOs) throws Exception {
+        if (commentDTOs == null || commentDTOs.isEmpty()) {
+            throw new NullPointerException("Comments cannot be null or empty");
+        }
+        if (commentDTOs.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " comments can be created at once");
+        }
+        Map<Integer, Blog> blogs = new HashMap<>(); //each blog and commenter is looked up once
+        Set<String> usernames = new HashSet<>();
+        List<Comment> comments = new ArrayList<>();
+        for (CommentDTO commentDTO : commentDTOs) {
+            if (commentDTO == null) {
+                throw new NullPointerException("Comment cannot be null");
+            }
+            Integer blogId = commentDTO.getBlogId();
+            Blog existingBlog = blogs.get(blogId);
+            if (existingBlog == null) {
+                existingBlog = blogRepository.findById(blogId).orElseThrow(() -> new Exception("Blog with id " + blogId + " not found"));
+                blogs.put(blogId, existingBlog);
+            }
+            String username = commentDTO.getCommenterUsername();
+            if (!usernames.contains(username)) {
+                if (userRepository.findIdByUsername(username) == null) {
+                    throw new Exception("Commenter username does not exist as user");
+                }
+                usernames.add(username);
+            }
+            comments.add(mapToComment(commentDTO, existingBlog)); //not added to blog.getComments(), that would load all of its comments
+        }
+        LocalDateTime now = LocalDateTime.now();
+        blogs.values().forEach(blog -> blog.setLastModifiedDate(now)); //comments are part of the blog's etag
+
+        List<Comment> savedComments = commentRepository.saveAll(comments);
+        for (Comment savedComment : savedComments) {
+            createNotification(savedComment, savedComment.getBlog());
+        }
+        blogs.keySet().forEach(blogCache::invalidate);
+        return savedComments;
+    }
+
     //method to send saved comment info to microservice
+    //only saves the notification to the outbox - it is sent in the background after the transaction commits (see NotificationDispatcher)
     public void createNotification(Comment comment, Blog existingBlog) throws Exception {
         NotificationDTO notificationDTO = new NotificationDTO();
         notificationDTO.setCommenterUsername(comment.getCommenterUsername());
         notificationDTO.setBloggerId(existingBlog.getUser().getId());
         notificationDTO.setCommentId(comment.getId());
         notificationDTO.setBlogId(existingBlog.getId());
-        try {
-            restTemplate.postForEntity("http://localhost:8081/notifications", notificationDTO, RestTemplate.class); //call to microservice endpoint
-        } catch (Exception e) {
-            throw new Exception("Notification could not be sent to the server");
-        }
-
+        notificationDispatcher.enqueue(notificationDTO);
     }
 
 
@@ -106,7 +155,9 @@ public class CommentService {
                 existingComment.setLikes(comment.getLikes());
             }
             //intentionally not setting commenter username or blog because those should not have an edit/update feature
-            return commentRepository.save(existingComment);
+            Comment savedComment = commentRepository.save(existingComment);
+            blogChanged(existingComment);
+            return savedComment;
         } else {
             throw new NullPointerException("Comment cannot be null");
         }
@@ -116,5 +167,15 @@ public class CommentService {
     public void deleteComment(Integer id) throws Exception {
         Comment comment = commentRepository.findById(id).orElseThrow(() -> new Exception("Comment with id " + id + " not found"));
         commentRepository.delete(comment);
+        blogChanged(comment);
+    }
+
+    //comments are cached and versioned (etag) as part of their blog
+    private void blogChanged(Comment comment) {
+        if (comment.getBlog() != null) {
+            Integer blogId = comment.getBlog().getId(); //id of the lazy blog proxy, doesn't load the blog
+            blogRepository.touch(blogId, LocalDateTime.now());
+            blogCache.invalidate(blogId);
+        }
     }
 }
@@ -0,0 +1,31 @@
+package com.example.blog.service;
+
+import java.util.*;
+import java.util.function.Function;
+
+//resolves a list of ids with one findAllById (IN query) instead of one findById per id
+final class IdLookup {
+    private IdLookup() {
+    }
+
+    //entities by id for all given ids (nulls and repeats are ignored), or an exception naming every id that doesn't exist
+    static <T> Map<Integer, T> findAllOrThrow(Collection<Integer> ids, Function<List<Integer>, List<T>> findAllById,
+                                              Function<T, Integer> idOf, String entityName) throws Exception {
+        Set<Integer> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, T> found = new HashMap<>();
+        for (T entity : findAllById.apply(new ArrayList<>(distinctIds))) {
+            found.put(idOf.apply(entity), entity);
+        }
+        List<Integer> missing = distinctIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (missing.size() == 1) {
+            throw new Exception(entityName + " with id " + missing.getFirst() + " not found");
+        } else if (!missing.isEmpty()) {
+            throw new Exception(entityName + "s with ids " + missing + " not found");
+        }
+        return found;
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.blog.service;
 
+import com.example.blog.cache.BlogCache;
+import com.example.blog.cache.NaturalKeyCache;
+import com.example.blog.dto.ResourceVersionDTO;
+import com.example.blog.dto.TagBulkResultDTO;
 import com.example.blog.dto.TagDTO;
 import com.example.blog.model.Blog;
 import com.example.blog.model.Tag;
@@ -8,19 +12,44 @@ import com.example.blog.repository.ITagRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class TagService {
+    private static final int MAX_BULK_SIZE = 5000;
+
     @Autowired
     ITagRepository tagRepository;
 
     @Autowired
     IBlogRepository blogRepository;
 
+    @Autowired
+    NaturalKeyCache naturalKeyCache;
+
+    @Autowired
+    BlogCache blogCache;
+
     public List<Tag> mapToTags(List<TagDTO> tagsDTOs) throws Exception {
+        List<Integer> allBlogIds = new ArrayList<>();
+        for (TagDTO tagDTO : tagsDTOs) {
+            if (tagDTO.getBlogIds() != null) {
+                allBlogIds.addAll(tagDTO.getBlogIds());
+            }
+        }
+        //blogs of all tags in one query, fails with every blog id that doesn't exist
+        Map<Integer, Blog> blogsById = IdLookup.findAllOrThrow(allBlogIds, blogRepository::findAllById, Blog::getId, "Blog");
+
         List<Tag> tags = new ArrayList<>();
         for (TagDTO tagDTO : tagsDTOs) { //loop through tag DTOs
             Tag tag = new Tag(); //create a new tag for each round
@@ -28,11 +57,11 @@ public class TagService {
             tag.setDescription(tagDTO.getDescription());
 
             if(tagDTO.getBlogIds() != null) { //if there are any blog Ids
-                List<Integer> blogIds = tagDTO.getBlogIds(); //get list of blog ids
                 List<Blog> blogs = new ArrayList<>(); //create empty list of blogs
-                for (Integer blogId : blogIds) { //loop through blog id list
-                    Blog blogToAdd = blogRepository.findById(blogId).orElseThrow(() -> new Exception("Blog with id " + blogId + " not found")); //find matching blog
-                    blogs.add(blogToAdd); //add matching blog to blog list
+                for (Integer blogId : new LinkedHashSet<>(tagDTO.getBlogIds())) { //a blog is linked once even if its id is repeated
+                    if (blogId != null) {
+                        blogs.add(blogsById.get(blogId)); //add matching blog to blog list
+                    }
                 }
                 tag.setBlogs(blogs); //set blogs to list created above
             }
@@ -53,49 +82,108 @@ public class TagService {
     }
 
     //add tags (takes list and can take list of blogs)
+    @Transactional //tags and their blog links are saved together, cached blogs are dropped again after the commit
     public List<Tag> addTags (List<TagDTO> tagDTOs) throws Exception {
         if (tagDTOs != null) {
-            for (TagDTO tagDTO : tagDTOs) {
-                String tagName = tagDTO.getName().toLowerCase(); //get tag name
-                Tag matchingTag = tagRepository.findByName(tagName); //see if tag exists
-
-                if (matchingTag != null) { //if a matching tag name is found, throw exception
-                    throw new DuplicateKeyException("Tag with name " + tagName + " already exists"); //will stop here if match found
-                }
+            Map<String, TagDTO> tagsByName = mapByName(tagDTOs);
+            if (tagsByName.size() < tagDTOs.size()) { //the unique index would reject the second one
+                throw new DuplicateKeyException("Tag names must not be repeated");
             }
-            //if no match found, method will continue here
-            List<Tag> tags = mapToTags(tagDTOs);
-            for (Tag tag : tags) { //for each tag, get all blogs
-                if (tag.getBlogs() != null) { //if there are blogs
-                    List<Blog> blogs = tag.getBlogs();
-                    for (Blog blog : blogs) { //for each blog, set the tags
-                        blog.getTags().add(tag);
-                        //blogRepository.save(blog); //manual save to repo > not needed bc merge/persist from tag to blog
-                    }
-                }
+            List<String> existingNames = findExistingNames(new ArrayList<>(tagsByName.keySet())); //one query for all names
+            if (existingNames.size() == 1) { //if a matching tag name is found, throw exception
+                throw new DuplicateKeyException("Tag with name " + existingNames.get(0) + " already exists");
+            } else if (!existingNames.isEmpty()) {
+                throw new DuplicateKeyException("Tags with names " + existingNames + " already exist");
             }
-            return tagRepository.saveAll(tags); //saveAll replaces need to use for loop
+            //if no match found, method will continue here
+            return saveTags(tagDTOs);
         } else {
             throw new NullPointerException("Tag cannot be null");
         }
     }
 
+    //add the tags whose names don't exist yet and report the names that did (for imports that may overlap)
+    //existing tags are left unchanged, a name repeated in the list is added once (first one wins)
+    @Transactional
+    public TagBulkResultDTO addTagsIfAbsent(List<TagDTO> tagDTOs) throws Exception {
+        if (tagDTOs == null || tagDTOs.isEmpty()) {
+            throw new NullPointerException("Tags cannot be null or empty");
+        }
+        if (tagDTOs.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " tags can be imported at once");
+        }
+        Map<String, TagDTO> tagsByName = mapByName(tagDTOs);
+        List<String> existingNames = findExistingNames(new ArrayList<>(tagsByName.keySet())); //one query for all names
+        existingNames.forEach(tagsByName::remove);
+
+        List<Tag> createdTags = tagsByName.isEmpty() ? new ArrayList<>() : saveTags(new ArrayList<>(tagsByName.values()));
+        return new TagBulkResultDTO(createdTags, existingNames);
+    }
+
+    //tag DTOs by lower case name, keeps the first DTO of a repeated name
+    private Map<String, TagDTO> mapByName(List<TagDTO> tagDTOs) {
+        Map<String, TagDTO> tagsByName = new LinkedHashMap<>();
+        for (TagDTO tagDTO : tagDTOs) {
+            tagsByName.putIfAbsent(tagDTO.getName().toLowerCase(), tagDTO);
+        }
+        return tagsByName;
+    }
+
+    //lower case names that are already taken (by a tag of any case), sorted
+    private List<String> findExistingNames(Collection<String> tagNames) {
+        if (tagNames.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return tagRepository.findByNameIn(tagNames).stream()
+                .map(tag -> tag.getName().toLowerCase())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private List<Tag> saveTags(List<TagDTO> tagDTOs) throws Exception {
+        List<Tag> tags = mapToTags(tagDTOs);
+        Set<Integer> taggedBlogIds = new LinkedHashSet<>();
+        for (Tag tag : tags) { //for each tag, get all blogs
+            if (tag.getBlogs() != null) { //if there are blogs
+                List<Blog> blogs = tag.getBlogs();
+                for (Blog blog : blogs) { //for each blog, set the tags
+                    blog.getTags().add(tag);
+                    blog.setLastModifiedDate(LocalDateTime.now()); //tags are part of the blog's etag
+                    taggedBlogIds.add(blog.getId());
+                    //blogRepository.save(blog); //manual save to repo > not needed bc merge/persist from tag to blog
+                }
+            }
+        }
+        List<Tag> savedTags = tagRepository.saveAll(tags); //saveAll replaces need to use for loop
+        //after the save (and again after the commit), a read in between would cache the blog without its new tags
+        taggedBlogIds.forEach(blogCache::invalidate);
+        savedTags.forEach(savedTag -> naturalKeyCache.evictTag(savedTag.getName())); //drop any cached "not found" of the new names
+        return savedTags;
+    }
+
 
     //update tag
     public Tag updateTag(Integer id, Tag tag) throws Exception {
         Tag existingTag = tagRepository.findById(id).orElseThrow(() -> new Exception("Tag with id " + id + " not found"));
         if (tag != null) {
             String tagName = tag.getName().toLowerCase(); //get tag name
-            Tag matchingTag = tagRepository.findByName(tagName); //see if tag exists
+            Integer matchingTagId = tagRepository.findIdByName(tagName); //see if tag exists
 
-            if (matchingTag != null) { //if a matching tag name is found, throw exception
+            if (matchingTagId != null) { //if a matching tag name is found, throw exception
                 throw new DuplicateKeyException("Tag with name " + tagName + " already exists"); //stops here if match found
             }
             //if no match found, continues method
+            String oldTagName = existingTag.getName();
             existingTag.setName(tag.getName().toLowerCase());
             existingTag.setDescription(tag.getDescription());
             //intentionally not adding set for blog id since you wouldn't edit a tag from one blog to another (would delete tag or add)
-            return tagRepository.save(existingTag);
+            Tag savedTag = tagRepository.save(existingTag);
+            blogRepository.touchAllByTagId(id, LocalDateTime.now()); //renamed tag changes the etag of every blog carrying it
+            naturalKeyCache.evictTag(oldTagName);
+            naturalKeyCache.evictTag(tagName);
+            blogCache.invalidateAll(); //renamed tag shows up in every cached blog carrying it
+            return savedTag;
         } else {
             throw new NullPointerException("Tag cannot be null");
         }
@@ -105,11 +193,14 @@ public class TagService {
     //delete tag
     public void deleteTag(Integer id) throws Exception {
         Tag existingTag = tagRepository.findById(id).orElseThrow(() -> new Exception("Tag with id " + id + " not found"));
+        blogRepository.touchAllByTagId(id, LocalDateTime.now()); //before the blogs lose the tag
         List<Blog> matchingBlogs = existingTag.getBlogs();
         for (Blog blog : matchingBlogs) {
             blog.getTags().remove(existingTag); //ensure deleted tag does not exist on blog
         }
         tagRepository.delete(existingTag);
+        naturalKeyCache.evictTag(existingTag.getName());
+        blogCache.invalidateAll();
     }
 
     //additional functionalities
@@ -118,13 +209,19 @@ public class TagService {
         if (name.isBlank()) {
             throw new IllegalArgumentException("Name cannot be a blank or empty string");
         }
-        return tagRepository.findByName(name.toLowerCase()); //acceptable to return null response if no result found, no exception needed
+        Integer id = tagRepository.findIdByName(name.toLowerCase()); //cached, the tag itself is loaded in this session
+        return id == null ? null : tagRepository.findById(id).orElse(null); //acceptable to return null response if no result found, no exception needed
     }
 
 
+    //version of the tag's blog list for conditional GETs
+    public ResourceVersionDTO getBlogsVersion(Integer id) {
+        return blogRepository.findVersionByTagId(id);
+    }
+
     //get blogs by tag id
     public List<Blog> getBlogsByTag(Integer id) throws Exception {
-        Tag existingTag = tagRepository.findById(id).orElseThrow(() -> new Exception("Tag with id " + id + " not found"));
+        Tag existingTag = tagRepository.findWithBlogsById(id).orElseThrow(() -> new Exception("Tag with id " + id + " not found"));
 
         return existingTag.getBlogs();
     }
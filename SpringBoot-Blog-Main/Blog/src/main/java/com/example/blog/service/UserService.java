@@ -1,16 +1,23 @@
 package com.example.blog.service;
 
+import com.example.blog.cache.BlogCache;
+import com.example.blog.cache.NaturalKeyCache;
 import com.example.blog.dto.NotificationDTO;
+import com.example.blog.dto.ResourceVersionDTO;
 import com.example.blog.model.Blog;
 import com.example.blog.model.User;
+import com.example.blog.notification.NotificationClient;
 import com.example.blog.repository.IBlogRepository;
 import com.example.blog.repository.IUserRepository;
+import com.example.blog.search.BlogSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -25,6 +32,21 @@ public class UserService {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    BlogSearchIndex searchIndex;
+
+    @Autowired
+    NotificationClient notificationClient;
+
+    @Autowired
+    NaturalKeyCache naturalKeyCache;
+
+    @Autowired
+    BlogCache blogCache;
+
+    @Value("${blog.notifications.users-url:http://localhost:8081/notifications/users/{id}}")
+    String notificationsByUserUrl;
+
     //get all users
     public List<User> getAllUsers() {
         return userRepository.findAll();
@@ -40,12 +62,14 @@ public class UserService {
     public User createUser(User user) throws Exception {
         if (user != null) {
             String username = user.getUsername();
-            User existingUser = userRepository.findByUsername(username); //check if username already exists
+            Integer existingUserId = userRepository.findIdByUsername(username); //check if username already exists
 
-            if (existingUser != null) {
+            if (existingUserId != null) {
                 throw new DuplicateKeyException("Username " + username + " already taken");
             }
-            return userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            naturalKeyCache.evictUser(username); //drop the cached "not found" from the check above
+            return savedUser;
         } else {
             throw new NullPointerException("User cannot be null");
         }
@@ -56,17 +80,21 @@ public class UserService {
         User existingUser = userRepository.findById(id).orElseThrow(() -> new Exception("User with id " + id + " not found"));
         if (user != null) {
             String username = user.getUsername();
-            User matchingUser = userRepository.findByUsername(username); //check if username exists
+            Integer matchingUserId = userRepository.findIdByUsername(username); //check if username exists
 
-            if (matchingUser != null) {
+            if (matchingUserId != null) {
                 throw new DuplicateKeyException("Username " + username + " already taken"); //stops here if username already exists
             }
 
+            String oldUsername = existingUser.getUsername();
             existingUser.setUsername(user.getUsername());
             existingUser.setPassword(user.getPassword());
             existingUser.setEmail(user.getEmail());
             existingUser.setAddress(user.getAddress());
-            return userRepository.save(existingUser);
+            User savedUser = userRepository.save(existingUser);
+            naturalKeyCache.evictUser(oldUsername);
+            naturalKeyCache.evictUser(username);
+            return savedUser;
         } else {
             throw new NullPointerException("User cannot be null");
         }
@@ -76,6 +104,13 @@ public class UserService {
     public void deleteUser(Integer id) throws Exception {
         User user = userRepository.findById(id).orElseThrow(() -> new Exception("User with id " + id + " not found"));
         userRepository.delete(user);
+        naturalKeyCache.evictUser(user.getUsername());
+        if (user.getBlogs() != null) { //user's blogs are deleted with the user
+            user.getBlogs().forEach(blog -> {
+                searchIndex.remove(blog.getId());
+                blogCache.invalidate(blog.getId());
+            });
+        }
     }
 
 
@@ -90,16 +125,22 @@ public class UserService {
                 blog.setLikes(0);
             }
             existingUser.getBlogs().add(blog);
-            blogRepository.save(blog);
+            searchIndex.index(blogRepository.save(blog));
+            blogCache.invalidate(blog.getId()); //new blog belongs in the user's cached blog list
             return userRepository.save(existingUser);
         } else {
             throw new NullPointerException("Blog cannot be null");
         }
     }
 
+    //version of the user's blog list for conditional GETs
+    public ResourceVersionDTO getBlogsVersion(Integer id) {
+        return blogRepository.findVersionByUserId(id);
+    }
+
     //get all blogs by user id
     public List<Blog> getBlogsByUserId(Integer id) throws Exception {
-        User existingUser = userRepository.findById(id).orElseThrow(() -> new Exception("User with id " + id + " not found"));
+        User existingUser = userRepository.findWithBlogsById(id).orElseThrow(() -> new Exception("User with id " + id + " not found"));
 
         return existingUser.getBlogs();
     }
@@ -110,10 +151,14 @@ public class UserService {
         userRepository.findById(id).orElseThrow(() -> new Exception("User with id " + id + " not found"));
 
         //call to microservice endpoint
-        ResponseEntity<NotificationDTO[]> response = restTemplate.getForEntity(
-                "http://localhost:8081/notifications/users/{id}",
+        //if the microservice is down or overloaded, return no notifications instead of failing or waiting on it
+        ResponseEntity<NotificationDTO[]> response = notificationClient.execute(() -> restTemplate.getForEntity(
+                notificationsByUserUrl,
                 NotificationDTO[].class,
-                id);
+                id), () -> null);
+        if (response == null) {
+            return new ArrayList<>();
+        }
 
         if(response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
             NotificationDTO[] notificationDTOs = response.getBody();
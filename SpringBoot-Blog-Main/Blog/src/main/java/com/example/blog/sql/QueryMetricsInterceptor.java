@@ -0,0 +1,78 @@
+package com.example.blog.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+//counts the sql statements and db time of every request and publishes them tagged by controller method
+//(handler tag, e.g. BlogController.getBlogById):
+//blog.db.queries - statements per request, blog.db.time - db time per request, blog.db.slow.queries - slow statements
+@Component
+public class QueryMetricsInterceptor implements HandlerInterceptor {
+    @Autowired
+    ObjectProvider<MeterRegistry> meterRegistry; //missing when metrics are off (e.g. test slices)
+
+    private final ConcurrentHashMap<Method, String> handlerNames = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Method, HandlerMeters> handlerMeters = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            RequestQueryStats.start(handlerNames.computeIfAbsent(handlerMethod.getMethod(),
+                    method -> handlerMethod.getBeanType().getSimpleName() + "." + method.getName()));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        RequestQueryStats.clear();
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (stats == null || registry == null || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        HandlerMeters meters = handlerMeters.computeIfAbsent(handlerMethod.getMethod(),
+                method -> new HandlerMeters(registry, stats.getHandler()));
+        meters.queries.record(stats.getQueries());
+        meters.time.record(stats.getNanos(), TimeUnit.NANOSECONDS);
+        if (stats.getSlowQueries() > 0) {
+            meters.slowQueries.increment(stats.getSlowQueries());
+        }
+    }
+
+    //registered once per controller method instead of looked up on every request
+    private static final class HandlerMeters {
+        private final DistributionSummary queries;
+        private final Timer time;
+        private final Counter slowQueries;
+
+        private HandlerMeters(MeterRegistry registry, String handler) {
+            queries = DistributionSummary.builder("blog.db.queries")
+                    .description("SQL statements per request")
+                    .baseUnit("statements")
+                    .tag("handler", handler)
+                    .register(registry);
+            time = Timer.builder("blog.db.time")
+                    .description("Time spent in SQL statements per request")
+                    .tag("handler", handler)
+                    .register(registry);
+            slowQueries = Counter.builder("blog.db.slow.queries")
+                    .description("SQL statements slower than blog.sql.slow-query-ms")
+                    .tag("handler", handler)
+                    .register(registry);
+        }
+    }
+}
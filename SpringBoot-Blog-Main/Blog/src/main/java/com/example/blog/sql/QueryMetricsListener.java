@@ -0,0 +1,55 @@
+package com.example.blog.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+//gets every statement sent through the datasource proxy (see DataSourceProxyConfig): adds it to the current request's
+//stats and logs it if it took at least slow-query-ms
+//bind parameters are never logged and quoted literals in the sql are masked, so user data doesn't end up in the logs
+@Slf4j
+public class QueryMetricsListener implements QueryExecutionListener {
+    private static final String START_NANOS = "startNanos";
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private final long slowQueryNanos;
+
+    public QueryMetricsListener(long slowQueryMs) {
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMs);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime()); //the proxy's own elapsed time is in whole ms
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startNanos = execInfo.getCustomValue(START_NANOS, Long.class);
+        long elapsedNanos = startNanos != null ? System.nanoTime() - startNanos
+                : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        boolean slow = elapsedNanos >= slowQueryNanos;
+
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.add(elapsedNanos, slow);
+        }
+        if (slow) {
+            log.warn("Slow query: {} ms{} in {}: {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "",
+                    stats != null ? stats.getHandler() : "background", redact(queryInfoList));
+        }
+    }
+
+    static String redact(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream()
+                .map(queryInfo -> STRING_LITERAL.matcher(queryInfo.getQuery()).replaceAll("'?'"))
+                .collect(Collectors.joining("; "));
+    }
+}
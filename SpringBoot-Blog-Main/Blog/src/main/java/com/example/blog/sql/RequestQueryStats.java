@@ -0,0 +1,55 @@
+package com.example.blog.sql;
+
+//sql statements run by the current http request (QueryMetricsInterceptor starts and ends it, QueryMetricsListener adds to it)
+//lazy loads while the response is written happen on the same thread, so they are counted too
+public final class RequestQueryStats {
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private final String handler;
+    private int queries; //round trips, a jdbc batch counts once
+    private long nanos;
+    private int slowQueries;
+
+    private RequestQueryStats(String handler) {
+        this.handler = handler;
+    }
+
+    static RequestQueryStats start(String handler) {
+        RequestQueryStats stats = new RequestQueryStats(handler);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    //null outside of a request (e.g. background threads)
+    static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    void add(long elapsedNanos, boolean slow) {
+        queries++;
+        nanos += elapsedNanos;
+        if (slow) {
+            slowQueries++;
+        }
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+
+    public int getQueries() {
+        return queries;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public int getSlowQueries() {
+        return slowQueries;
+    }
+}
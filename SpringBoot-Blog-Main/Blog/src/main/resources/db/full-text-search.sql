@@ -0,0 +1,6 @@
+-- full-text search column and index of the blog table (PostgreSQL), see FullTextSearchInitializer
+-- the application only adds the column to an empty table: adding a generated column rewrites the whole table under an
+-- ACCESS EXCLUSIVE lock (no reads or writes of blogs until it is done), so on a table with rows run this as a migration
+-- at a quiet time, with autocommit on (CREATE INDEX CONCURRENTLY can't run in a transaction block)
+ALTER TABLE blog ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (setweight(to_tsvector('english', coalesce(title, '')), 'A') || setweight(to_tsvector('english', coalesce(content, '')), 'B')) STORED;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_blog_search_vector ON blog USING GIN (search_vector);
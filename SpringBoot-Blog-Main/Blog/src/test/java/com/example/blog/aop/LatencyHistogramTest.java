@@ -0,0 +1,106 @@
+package com.example.blog.aop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    //---BUCKETS---
+    @Test
+    public void testEveryValueFitsItsBucket() {
+        for (long value = 0; value < 1_000_000; value += 7) {
+            assertBucket(value);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertBucket(ThreadLocalRandom.current().nextLong(LatencyHistogram.MAX_VALUE + 1));
+        }
+        assertBucket(LatencyHistogram.MAX_VALUE);
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE));
+    }
+
+    private void assertBucket(long value) {
+        int index = LatencyHistogram.indexOf(value);
+        long highest = LatencyHistogram.highestValueOf(index);
+        assertTrue(highest >= value, value + " is above its bucket's highest value " + highest);
+        assertTrue(index == 0 || LatencyHistogram.highestValueOf(index - 1) < value, value + " belongs to a lower bucket");
+        assertTrue(highest - value <= value / 32, value + " is reported as " + highest + ", more than ~3% off");
+    }
+
+    //---PERCENTILES---
+    //HAPPY PATH
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long millis = 1; millis <= 1000; millis++) {
+            histogram.record(millis * 1_000_000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500, snapshot.getMillisAtPercentile(50), 500 * 0.04);
+        assertEquals(990, snapshot.getMillisAtPercentile(99), 990 * 0.04);
+        assertEquals(999, snapshot.getMillisAtPercentile(99.9), 999 * 0.04);
+        assertEquals(1000_000_000, snapshot.getValueAtPercentile(100), "The top percentile is the exact max");
+        assertEquals(1000_000_000, snapshot.getMaxNanos());
+        assertEquals(500.5, LatencyHistogram.Snapshot.toMillis(snapshot.getMeanNanos()), 0.001);
+    }
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(99));
+        assertEquals(0, snapshot.getMeanNanos());
+    }
+
+    //SAD PATH - values outside the range are clamped, not dropped
+    @Test
+    public void testOutOfRangeClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(50));
+        assertEquals(LatencyHistogram.MAX_VALUE, snapshot.getMaxNanos());
+    }
+
+    //---CONCURRENT RECORDING---
+    @Test
+    public void testConcurrentRecordsNotLost() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int recordsPerThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                long nanos = (i + 1) * 1_000L;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < recordsPerThread; j++) {
+                        histogram.record(nanos);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals((long) threads * recordsPerThread, snapshot.getCount());
+        assertEquals(threads * 1_000L, snapshot.getMaxNanos());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.blog.aop;
+
+import com.example.blog.dto.MethodStatsDTO;
+import com.example.blog.model.Tag;
+import com.example.blog.repository.IBlogRepository;
+import com.example.blog.repository.ITagRepository;
+import com.example.blog.service.TagService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+public class MethodMetricsAspectTest {
+    @Autowired
+    MethodMetricsAspect methodMetricsAspect;
+
+    @Autowired
+    TagService tagService;
+
+    @MockBean
+    ITagRepository tagRepository;
+
+    @MockBean
+    IBlogRepository blogRepository;
+
+    private MethodStatsDTO statsOf(String method) {
+        return methodMetricsAspect.getStats().stream()
+                .filter(stats -> stats.getMethod().equals(method))
+                .findFirst()
+                .orElse(new MethodStatsDTO(method, 0L, 0L, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0));
+    }
+
+    //---SERVICE METHOD STATS---
+    //HAPPY PATH
+    @Test
+    public void testCallsAndErrorsCounted() {
+        when(tagRepository.findById(1)).thenReturn(Optional.of(new Tag(1, "travel", "Tag Description", null)));
+        MethodStatsDTO before = statsOf("TagService.getTagById");
+
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(() -> tagService.getTagById(1));
+        }
+        assertThrows(Exception.class, () -> tagService.getTagById(10000)); //not found
+
+        MethodStatsDTO after = statsOf("TagService.getTagById");
+        assertEquals(4, after.getCalls() - before.getCalls());
+        assertEquals(1, after.getErrors() - before.getErrors());
+        assertTrue(after.getP50Ms() >= 0 && after.getP50Ms() <= after.getP99Ms() && after.getP99Ms() <= after.getMaxMs());
+    }
+
+    @Test
+    public void testStatsSortedByMethod() throws Exception {
+        tagService.getAllTags();
+        tagService.getTagByName("travel");
+        List<String> methods = methodMetricsAspect.getStats().stream().map(MethodStatsDTO::getMethod).toList();
+
+        assertTrue(methods.containsAll(List.of("TagService.getAllTags", "TagService.getTagByName")));
+        assertEquals(methods.stream().sorted().toList(), methods);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.blog.cache;
+
+import com.example.blog.model.Blog;
+import com.example.blog.model.Comment;
+import com.example.blog.model.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlogCacheTest {
+    private BlogCache createCache(boolean enabled) {
+        BlogCache blogCache = new BlogCache(enabled, 1_000_000, 600);
+        blogCache.jsonCache = new BlogJsonCache(false, 1_000_000, 600);
+        return blogCache;
+    }
+
+    private Blog createBlog(Integer id, String content) {
+        Blog blog = new Blog(id, "Blog Title", content, 0, null, null, null, new ArrayList<>(), new ArrayList<>());
+        blog.getComments().add(new Comment(1, "Comment text", 0, null, "TestUsername1", blog));
+        blog.getTags().add(new Tag(1, "travel", "Tag Description", null));
+        return blog;
+    }
+
+    //---GET---
+    //HAPPY PATH
+    @Test
+    public void testGetLoadsOnce() {
+        BlogCache blogCache = createCache(true);
+        AtomicInteger loads = new AtomicInteger();
+        Blog blog = createBlog(1, "Blog Content");
+
+        assertSame(blog, blogCache.get(1, id -> { loads.incrementAndGet(); return blog; }));
+        assertSame(blog, blogCache.get(1, id -> { loads.incrementAndGet(); return blog; }));
+        assertEquals(1, loads.get(), "Second read should come from the cache");
+    }
+
+    //SAD PATH - missing blogs are not cached
+    @Test
+    public void testGetMissingNotCached() {
+        BlogCache blogCache = createCache(true);
+        assertNull(blogCache.get(1, id -> null));
+
+        Blog blog = createBlog(1, "Blog Content");
+        assertSame(blog, blogCache.get(1, id -> blog), "A blog created after a miss should be found");
+    }
+
+    @Test
+    public void testGetDisabled() {
+        BlogCache blogCache = createCache(false);
+        AtomicInteger loads = new AtomicInteger();
+        blogCache.get(1, id -> { loads.incrementAndGet(); return createBlog(1, "Blog Content"); });
+        blogCache.get(1, id -> { loads.incrementAndGet(); return createBlog(1, "Blog Content"); });
+
+        assertEquals(2, loads.get(), "Every read should load when the cache is disabled");
+    }
+
+    //---INVALIDATE---
+    @Test
+    public void testInvalidate() {
+        BlogCache blogCache = createCache(true);
+        blogCache.get(1, id -> createBlog(1, "Old Content"));
+        blogCache.get(2, id -> createBlog(2, "Other Content"));
+        blogCache.invalidate(1);
+
+        assertEquals("New Content", blogCache.get(1, id -> createBlog(1, "New Content")).getContent());
+        assertEquals("Other Content", blogCache.get(2, id -> createBlog(2, "New Content")).getContent(),
+                "Other blogs should stay cached");
+
+        blogCache.invalidateAll();
+        assertEquals("New Content", blogCache.get(2, id -> createBlog(2, "New Content")).getContent());
+    }
+
+    //---ESTIMATE BYTES---
+    @Test
+    public void testEstimateBytesGrowsWithContent() {
+        Blog small = createBlog(1, "Blog Content");
+        Blog large = createBlog(2, "x".repeat(10_000));
+        long smallBytes = BlogCache.estimateBytes(small);
+
+        assertEquals(smallBytes + 2L * (10_000 - "Blog Content".length()), BlogCache.estimateBytes(large));
+
+        small.getComments().add(new Comment(2, "Comment text", 0, null, "TestUsername1", small));
+        assertTrue(BlogCache.estimateBytes(small) > smallBytes, "Comments should count towards the size");
+        assertTrue(BlogCache.estimateBytes(new Blog()) > 0, "Blogs without comments or tags should be sized too");
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.blog.cache;
+
+import com.example.blog.model.Blog;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlogJsonCacheTest {
+    private BlogJsonCache createCache() {
+        BlogJsonCache blogJsonCache = new BlogJsonCache(true, 1_000_000, 600);
+        blogJsonCache.objectMapper = JsonMapper.builder().findAndAddModules().build();
+        return blogJsonCache;
+    }
+
+    private Blog createBlog(Integer id) {
+        return new Blog(id, "Blog Title", "Blog Content", 0, LocalDateTime.of(2024, 1, 1, 12, 0), null, null, null, null);
+    }
+
+    //---GET BLOG---
+    //HAPPY PATH
+    @Test
+    public void testGetBlogSerializesOnce() throws Exception {
+        BlogJsonCache blogJsonCache = createCache();
+        AtomicInteger loads = new AtomicInteger();
+
+        byte[] first = blogJsonCache.getBlog(1, () -> { loads.incrementAndGet(); return createBlog(1); });
+        byte[] second = blogJsonCache.getBlog(1, () -> { loads.incrementAndGet(); return createBlog(1); });
+
+        assertSame(first, second, "Second read should return the cached bytes");
+        assertEquals(1, loads.get());
+        String json = new String(first, StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"creationDate\":\"2024-01-01T12:00:00.000000\""), "@JsonFormat patterns should be applied: " + json);
+    }
+
+    //SAD PATH - loader exceptions are thrown and not cached
+    @Test
+    public void testGetBlogNotFound() throws Exception {
+        BlogJsonCache blogJsonCache = createCache();
+        Exception exception = assertThrows(Exception.class,
+                () -> blogJsonCache.getBlog(10000, () -> { throw new Exception("Blog with id 10000 not found"); }));
+        assertEquals("Blog with id 10000 not found", exception.getMessage());
+
+        assertNotNull(blogJsonCache.getBlog(10000, () -> createBlog(10000)), "A blog created later should be found");
+    }
+
+    //---INVALIDATE BLOG---
+    @Test
+    public void testInvalidateBlogDropsLists() throws Exception {
+        BlogJsonCache blogJsonCache = createCache();
+        AtomicInteger loads = new AtomicInteger();
+        blogJsonCache.getBlog(1, () -> createBlog(1));
+        blogJsonCache.getBlog(2, () -> createBlog(2));
+        blogJsonCache.getBlogsByTag(1, () -> List.of(createBlog(1)));
+        blogJsonCache.getBlogsByUser(1, () -> List.of(createBlog(1), createBlog(2)));
+
+        blogJsonCache.invalidateBlog(1);
+
+        blogJsonCache.getBlog(1, () -> { loads.incrementAndGet(); return createBlog(1); });
+        blogJsonCache.getBlogsByTag(1, () -> { loads.incrementAndGet(); return List.of(); });
+        blogJsonCache.getBlogsByUser(1, () -> { loads.incrementAndGet(); return List.of(); });
+        assertEquals(3, loads.get(), "The blog and every blog list should be serialized again");
+
+        blogJsonCache.getBlog(2, () -> { loads.incrementAndGet(); return createBlog(2); });
+        assertEquals(3, loads.get(), "Other blogs should stay cached");
+    }
+}
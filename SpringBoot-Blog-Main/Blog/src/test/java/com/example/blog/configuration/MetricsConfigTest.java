@@ -0,0 +1,59 @@
+package com.example.blog.configuration;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//scrapes /actuator/prometheus after a few requests and checks that every metric group is there
+@SpringBootTest(properties = "blog.notifications.relay.enabled=false")
+@AutoConfigureMockMvc
+@AutoConfigureObservability //test contexts turn the prometheus registry off by default
+public class MetricsConfigTest {
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    RestTemplate restTemplate;
+
+    private String scrape() throws Exception {
+        return mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    //---PROMETHEUS ENDPOINT---
+    @Test
+    public void testScrapeHasAllMetricGroups() throws Exception {
+        mockMvc.perform(get("/tags")).andExpect(status().isOk());
+        mockMvc.perform(get("/tags/{id}", 10000)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/blogs/{id}", 10000)).andExpect(status().isNotFound()); //a blog cache miss
+        mockMvc.perform(get("/tags").param("name", "travel")).andExpect(status().isOk()); //a tag name cache miss
+        String scrape = scrape();
+
+        assertTrue(scrape.contains("uri=\"/tags/{id}\""), "Server timers are tagged with the route, not the path");
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket"), "Route latency histograms");
+        assertTrue(scrape.contains("hikaricp_connections_active"), "Connection pool usage");
+        assertTrue(scrape.contains("hikaricp_connections_pending"), "Threads waiting for a connection");
+        assertTrue(scrape.contains("hibernate_statements_total"), "Hibernate statistics");
+        assertTrue(scrape.contains("cache_gets_total{") && scrape.contains("cache=\"tagIdsByName\""), "Cache manager caches");
+        assertTrue(scrape.contains("cache=\"blogs\""), "Caches added after startup are bound too");
+        assertTrue(scrape.contains("jvm_gc_"), "Garbage collector metrics");
+        assertTrue(scrape.contains("application=\"blog\""), "Common application tag");
+    }
+
+    //---REST TEMPLATE---
+    @Test
+    public void testRestTemplateObserved() {
+        assertNotSame(ObservationRegistry.NOOP, restTemplate.getObservationRegistry(),
+                "Calls to the notification microservice should be timed (http.client.requests)");
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.blog.configuration;
+
+import com.example.blog.model.Tag;
+import com.example.blog.repository.ITagRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//runs against an embedded postgres (h2 has no indexes on expressions), rows are inserted with sql to get mixed-case names
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create") //no drop when the context closes, postgres is stopped by then
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TagNameIndexInitializer.class)
+public class TagNameIndexInitializerTest {
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ITagRepository tagRepository;
+
+    @Autowired
+    TagNameIndexInitializer tagNameIndexInitializer;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @AfterAll
+    public static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    public void dropIndex() {
+        jdbcTemplate.execute("DROP INDEX IF EXISTS uk_tag_lower_name"); //created for the empty table at startup
+    }
+
+    private void insertTag(int id, String name) {
+        jdbcTemplate.update("INSERT INTO tag (id, name, description) VALUES (?, ?, 'description')", id, name);
+    }
+
+    private String tagName(int id) {
+        return jdbcTemplate.queryForObject("SELECT name FROM tag WHERE id = ?", String.class, id);
+    }
+
+    private boolean indexExists() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM pg_indexes WHERE indexname = 'uk_tag_lower_name'", Integer.class) == 1;
+    }
+
+    //---CREATE LOWER NAME INDEX---
+    //HAPPY PATH
+    @Test
+    public void testIndexRejectsNameInOtherCase() {
+        insertTag(1, "java");
+        tagNameIndexInitializer.createLowerNameIndex();
+
+        assertTrue(indexExists());
+        assertThrows(DataIntegrityViolationException.class, () -> insertTag(2, "Java"));
+    }
+
+    //HAPPY PATH - mixed-case names are lower cased before the index is created
+    @Test
+    public void testMixedCaseNamesNormalized() {
+        insertTag(1, "Java");
+        insertTag(2, "spring");
+        tagNameIndexInitializer.createLowerNameIndex();
+
+        assertEquals("java", tagName(1));
+        assertEquals("spring", tagName(2));
+        assertTrue(indexExists());
+    }
+
+    //SAD PATH - names that only differ in case are kept and reported, the index is not created
+    @Test
+    public void testConflictingNamesKept() {
+        insertTag(1, "Java");
+        insertTag(2, "JAVA");
+        insertTag(3, "Go");
+        tagNameIndexInitializer.createLowerNameIndex();
+
+        assertEquals("Java", tagName(1));
+        assertEquals("JAVA", tagName(2));
+        assertEquals("go", tagName(3));
+        assertFalse(indexExists());
+    }
+
+    //---FIND BY NAME IN---
+    @Test
+    public void testFindByNameInIgnoresStoredCase() {
+        insertTag(1, "Java");
+        insertTag(2, "JAVA");
+        insertTag(3, "rust");
+        List<Tag> tags = tagRepository.findByNameIn(List.of("java", "go"));
+
+        assertEquals(List.of(1, 2), tags.stream().map(Tag::getId).sorted().toList());
+    }
+}
@@ -1,6 +1,12 @@
 package com.example.blog.controller;
 
+import com.example.blog.cache.BlogJsonCache;
 import com.example.blog.dto.BlogDTO;
+import com.example.blog.dto.BlogSummaryDTO;
+import com.example.blog.dto.CursorPageDTO;
+import com.example.blog.dto.ResourceVersionDTO;
+import com.example.blog.dto.SearchIndexStatsDTO;
+import com.example.blog.likes.LikeCounter;
 import com.example.blog.model.Blog;
 import com.example.blog.model.Comment;
 import com.example.blog.model.Tag;
@@ -15,6 +21,7 @@ import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -23,6 +30,7 @@ import java.util.List;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -34,6 +42,12 @@ public class BlogControllerTest {
     @MockBean
     BlogService blogService;
 
+    @MockBean
+    BlogJsonCache blogJsonCache;
+
+    @MockBean
+    LikeCounter likeCounter;
+
     private Blog createBlog(Integer id, String title, String content, Integer likes) {
         Blog blog = new Blog();
 
@@ -122,6 +136,54 @@ public class BlogControllerTest {
     }
 
 
+    //---GET BLOGS PAGE---
+    //HAPPY PATH
+    @Test
+    public void testGetBlogsPagePass() throws Exception {
+        CursorPageDTO<Blog> mockPage = new CursorPageDTO<>(Arrays.asList(mockBlog, mockBlog2), "nextCursor", true);
+        when(blogService.getBlogsPage(2, null)).thenReturn(mockPage);
+        mockMvc.perform(get("/blogs")
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(convertToJSON(mockPage)));
+
+        verify(blogService, times(1)).getBlogsPage(2, null);
+    }
+
+    //SAD PATH - invalid limit or cursor
+    @Test
+    public void testGetBlogsPageInvalid() throws Exception {
+        when(blogService.getBlogsPage(0, null)).thenThrow(new IllegalArgumentException("Limit must be between 1 and 100"));
+        mockMvc.perform(get("/blogs")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+
+    //---GET BLOG SUMMARIES PAGE---
+    //HAPPY PATH
+    @Test
+    public void testGetBlogSummariesPagePass() throws Exception {
+        BlogSummaryDTO mockSummary = new BlogSummaryDTO(1, "Blog Title", 100, mockBlog.getCreationDate(), mockBlog.getLastModifiedDate(), 1);
+        CursorPageDTO<BlogSummaryDTO> mockPage = new CursorPageDTO<>(List.of(mockSummary), null, false);
+        when(blogService.getBlogSummariesPage(20, null)).thenReturn(mockPage); //default limit
+        mockMvc.perform(get("/blogs/summaries"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(convertToJSON(mockPage)));
+
+        verify(blogService, times(1)).getBlogSummariesPage(20, null);
+    }
+
+    //SAD PATH - invalid limit or cursor
+    @Test
+    public void testGetBlogSummariesPageInvalid() throws Exception {
+        when(blogService.getBlogSummariesPage(20, "bad")).thenThrow(new IllegalArgumentException("Cursor bad is not valid"));
+        mockMvc.perform(get("/blogs/summaries")
+                        .param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+
     //---GET BLOG BY ID---
     //HAPPY PATH
     @Test
@@ -134,6 +196,51 @@ public class BlogControllerTest {
         verify(blogService, times(1)).getBlogById(1);
     }
 
+    //HAPPY PATH - conditional GET with the etag of the previous response
+    @Test
+    public void testGetBlogByIdNotModified() throws Exception {
+        when(blogService.getBlogById(1)).thenReturn(mockBlog);
+        when(blogService.getBlogVersion(1)).thenReturn(new ResourceVersionDTO(1L, LocalDateTime.of(2024, 1, 1, 12, 0)));
+        String eTag = mockMvc.perform(get("/blogs/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/blogs/{id}", 1).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(blogService, times(1)).getBlogById(1); //blog not loaded for the 304
+    }
+
+    //HAPPY PATH - conditional GET with a stale etag
+    @Test
+    public void testGetBlogByIdModified() throws Exception {
+        when(blogService.getBlogById(1)).thenReturn(mockBlog);
+        when(blogService.getBlogVersion(1)).thenReturn(new ResourceVersionDTO(1L, LocalDateTime.of(2024, 1, 1, 12, 0)));
+        String eTag = mockMvc.perform(get("/blogs/{id}", 1))
+                .andReturn().getResponse().getHeader("ETag");
+        when(blogService.getBlogVersion(1)).thenReturn(new ResourceVersionDTO(1L, LocalDateTime.of(2024, 1, 1, 12, 5)));
+
+        mockMvc.perform(get("/blogs/{id}", 1).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(content().json(convertToJSON(mockBlog)));
+    }
+
+    //HAPPY PATH - json cache enabled
+    @Test
+    public void testGetBlogByIdCachedJson() throws Exception {
+        String json = "{\"id\":1,\"title\":\"Blog Title\"}";
+        when(blogJsonCache.isEnabled()).thenReturn(true);
+        when(blogJsonCache.getBlog(eq(1), any())).thenReturn(json.getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/blogs/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(json));
+
+        verify(blogService, never()).getBlogById(1); //loader only runs on a cache miss
+    }
+
     //SAD PATH
     @Test
     public void testGetBlogByIdFail() throws Exception {
@@ -179,6 +286,53 @@ public class BlogControllerTest {
         verify(blogService, times(1)).createBlog(mockBlogDTO);
     }
 
+    //---ADD BLOGS (BULK)---
+    //HAPPY PATH
+    @Test
+    public void testCreateBlogsPass() throws Exception {
+        List<BlogDTO> blogDTOs = List.of(mockBlogDTO, createBlogDTO("Blog Title 2", "Blog Content 2", 45, 1));
+        when(blogService.createBlogs(blogDTOs)).thenReturn(List.of(mockBlog, mockBlog2));
+        mockMvc.perform(post("/blogs/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(convertToJSON(blogDTOs)))
+                .andExpect(status().isCreated())
+                .andExpect(content().json(convertToJSON(List.of(mockBlog, mockBlog2))));
+
+        verify(blogService, times(1)).createBlogs(blogDTOs);
+    }
+
+    //SAD PATH - a blog without title
+    @Test
+    public void testCreateBlogsInvalidFail() throws Exception {
+        List<BlogDTO> blogDTOs = List.of(mockBlogDTO, createBlogDTO("", "Blog Content 2", 45, 1));
+        mockMvc.perform(post("/blogs/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(convertToJSON(blogDTOs)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(blogService);
+    }
+
+    //SAD PATH - too many blogs
+    @Test
+    public void testCreateBlogsTooManyFail() throws Exception {
+        when(blogService.createBlogs(anyList())).thenThrow(new IllegalArgumentException("At most 500 blogs can be created at once"));
+        mockMvc.perform(post("/blogs/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(convertToJSON(List.of(mockBlogDTO))))
+                .andExpect(status().isBadRequest());
+    }
+
+    //SAD PATH - user not found
+    @Test
+    public void testCreateBlogsUserFail() throws Exception {
+        when(blogService.createBlogs(anyList())).thenThrow(new Exception("User with id 1 not found"));
+        mockMvc.perform(post("/blogs/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(convertToJSON(List.of(mockBlogDTO))))
+                .andExpect(status().isNotFound());
+    }
+
 
     //---UPDATE BLOG---
     //HAPPY PATH
@@ -302,6 +456,42 @@ public class BlogControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    //---SEARCH BLOGS---
+    //HAPPY PATH
+    @Test
+    public void testSearchBlogsPass() throws Exception {
+        List<Blog> mockBlogs = Arrays.asList(mockBlog, mockBlog2);
+        when(blogService.searchBlogs("travel", 0, 20)).thenReturn(mockBlogs); //default page and size
+        mockMvc.perform(get("/blogs/search")
+                        .param("query", "travel"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(convertToJSON(mockBlogs)));
+
+        verify(blogService, times(1)).searchBlogs("travel", 0, 20);
+    }
+
+    //SAD PATH - query is blank
+    @Test
+    public void testSearchBlogsBlank() throws Exception {
+        when(blogService.searchBlogs("  ", 0, 20)).thenThrow(new IllegalArgumentException("Search query cannot be a blank or empty string"));
+        mockMvc.perform(get("/blogs/search")
+                        .param("query", "  "))
+                .andExpect(status().isBadRequest());
+    }
+
+    //---GET SEARCH INDEX STATS---
+    //HAPPY PATH
+    @Test
+    public void testGetSearchIndexStatsPass() throws Exception {
+        SearchIndexStatsDTO stats = new SearchIndexStatsDTO(true, true, 2, 5, 7L, 1024L);
+        when(blogService.getSearchIndexStats()).thenReturn(stats);
+        mockMvc.perform(get("/blogs/search/index"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(convertToJSON(stats)));
+
+        verify(blogService, times(1)).getSearchIndexStats();
+    }
+
     //---ADD NEW TAG TO BLOG---
     //HAPPY PATH
     @Test
@@ -373,5 +563,40 @@ public class BlogControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    //---LIKE BLOG---
+    //HAPPY PATH
+    @Test
+    public void testLikeBlogPass() throws Exception {
+        mockMvc.perform(post("/blogs/{id}/likes", 1))
+                .andExpect(status().isAccepted());
+
+        verify(likeCounter, times(1)).likeBlog(1);
+        verifyNoInteractions(blogService); //no entity load or save per like
+    }
+
+    //SAD PATH - too many pending likes
+    @Test
+    public void testLikeBlogFail() throws Exception {
+        doThrow(new IllegalStateException("Too many pending likes, try again later")).when(likeCounter).likeBlog(1);
+        mockMvc.perform(post("/blogs/{id}/likes", 1))
+                .andExpect(status().isServiceUnavailable());
+    }
 
+    //---UNLIKE BLOG---
+    //HAPPY PATH
+    @Test
+    public void testUnlikeBlogPass() throws Exception {
+        mockMvc.perform(delete("/blogs/{id}/likes", 1))
+                .andExpect(status().isAccepted());
+
+        verify(likeCounter, times(1)).unlikeBlog(1);
+    }
+
+    //SAD PATH - too many pending likes
+    @Test
+    public void testUnlikeBlogFail() throws Exception {
+        doThrow(new IllegalStateException("Too many pending likes, try again later")).when(likeCounter).unlikeBlog(1);
+        mockMvc.perform(delete("/blogs/{id}/likes", 1))
+                .andExpect(status().isServiceUnavailable());
+    }
 }
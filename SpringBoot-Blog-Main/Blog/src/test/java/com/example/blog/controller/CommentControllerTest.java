@@ -1,6 +1,7 @@
 package com.example.blog.controller;
 
 import com.example.blog.dto.CommentDTO;
+import com.example.blog.likes.LikeCounter;
 import com.example.blog.model.Blog;
 import com.example.blog.model.Comment;
 import com.example.blog.model.User;
@@ -32,6 +33,9 @@ public class CommentControllerTest {
     @MockBean
     CommentService commentService;
 
+    @MockBean
+    LikeCounter likeCounter;
+
     private Comment createComment(Integer id, String text, Integer likes, String commenterUsername){
         Comment comment = new Comment();
         comment.setId(id);
@@ -162,6 +166,45 @@ public class CommentControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    //---ADD COMMENTS (BULK)---
+    //HAPPY PATH
+    @Test
+    public void testCreateCommentsPass() throws Exception {
+        List<CommentDTO> commentDTOs = List.of(mockCommentDTO, createCommentDTO("Text2", 50, "User321", 1));
+        when(commentService.createComments(commentDTOs)).thenReturn(List.of(mockComment, mockComment2));
+        mockMvc.perform(post("/comments/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(convertToJSON(commentDTOs)))
+                .andExpect(status().isCreated())
+                .andExpect(content().json(convertToJSON(List.of(mockComment, mockComment2))));
+
+        verify(commentService, times(1)).createComments(commentDTOs);
+    }
+
+    //SAD PATH - a comment without blog id
+    @Test
+    public void testCreateCommentsInvalidFail() throws Exception {
+        List<CommentDTO> commentDTOs = List.of(mockCommentDTO, createCommentDTO("Text2", 50, "User321", null));
+        mockMvc.perform(post("/comments/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(convertToJSON(commentDTOs)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(commentService);
+    }
+
+    //SAD PATH - blog id not found
+    @Test
+    public void testCreateCommentsBlogFail() throws Exception {
+        when(commentService.createComments(anyList())).thenThrow(new Exception("Blog with id 1 not found"));
+        mockMvc.perform(post("/comments/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(convertToJSON(List.of(mockCommentDTO))))
+                .andExpect(status().isNotFound());
+    }
+
+
+
     //---UPDATE COMMENT---
     //HAPPY PATH
     @Test
@@ -225,5 +268,40 @@ public class CommentControllerTest {
     }
 
 
+    //---LIKE COMMENT---
+    //HAPPY PATH
+    @Test
+    public void testLikeCommentPass() throws Exception {
+        mockMvc.perform(post("/comments/{id}/likes", 1))
+                .andExpect(status().isAccepted());
+
+        verify(likeCounter, times(1)).likeComment(1);
+        verifyNoInteractions(commentService);
+    }
+
+    //SAD PATH - too many pending likes
+    @Test
+    public void testLikeCommentFail() throws Exception {
+        doThrow(new IllegalStateException("Too many pending likes, try again later")).when(likeCounter).likeComment(1);
+        mockMvc.perform(post("/comments/{id}/likes", 1))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    //---UNLIKE COMMENT---
+    //HAPPY PATH
+    @Test
+    public void testUnlikeCommentPass() throws Exception {
+        mockMvc.perform(delete("/comments/{id}/likes", 1))
+                .andExpect(status().isAccepted());
 
+        verify(likeCounter, times(1)).unlikeComment(1);
+    }
+
+    //SAD PATH - too many pending likes
+    @Test
+    public void testUnlikeCommentFail() throws Exception {
+        doThrow(new IllegalStateException("Too many pending likes, try again later")).when(likeCounter).unlikeComment(1);
+        mockMvc.perform(delete("/comments/{id}/likes", 1))
+                .andExpect(status().isServiceUnavailable());
+    }
 }
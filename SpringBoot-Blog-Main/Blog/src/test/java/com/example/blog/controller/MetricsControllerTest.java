@@ -0,0 +1,135 @@
+package com.example.blog.controller;
+
+import com.example.blog.aop.MethodMetricsAspect;
+import com.example.blog.dto.CacheStatsDTO;
+import com.example.blog.dto.CircuitBreakerStatsDTO;
+import com.example.blog.dto.HttpPoolStatsDTO;
+import com.example.blog.dto.LikeCounterStatsDTO;
+import com.example.blog.dto.MethodStatsDTO;
+import com.example.blog.likes.LikeCounter;
+import com.example.blog.dto.NotificationDispatchStatsDTO;
+import com.example.blog.notification.NotificationClient;
+import com.example.blog.notification.NotificationDispatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(MetricsController.class)
+public class MetricsControllerTest {
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    NotificationDispatcher notificationDispatcher;
+
+    @MockBean
+    PoolingHttpClientConnectionManager httpConnectionManager;
+
+    @MockBean
+    NotificationClient notificationClient;
+
+    @MockBean
+    CacheManager cacheManager;
+
+    @MockBean
+    LikeCounter likeCounter;
+
+    @MockBean
+    MethodMetricsAspect methodMetricsAspect;
+
+    private String convertToJSON(Object object) throws Exception {
+        return new ObjectMapper().writeValueAsString(object);
+    }
+
+    //---GET NOTIFICATION STATS---
+    //HAPPY PATH
+    @Test
+    public void testGetNotificationStatsPass() throws Exception {
+        NotificationDispatchStatsDTO stats = new NotificationDispatchStatsDTO(3L, 1L, 17L, 0L, 4L, 50, 100L, 1000L);
+        when(notificationDispatcher.getStats()).thenReturn(stats);
+        mockMvc.perform(get("/metrics/notifications"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(convertToJSON(stats)));
+
+        verify(notificationDispatcher, times(1)).getStats();
+    }
+
+    //---GET NOTIFICATION CLIENT STATS---
+    //HAPPY PATH
+    @Test
+    public void testGetNotificationClientStatsPass() throws Exception {
+        CircuitBreakerStatsDTO stats = new CircuitBreakerStatsDTO("OPEN", Map.of("CLOSED->OPEN", 1L), 10L, 5L, 3L, 0L, 0, 10);
+        when(notificationClient.getStats()).thenReturn(stats);
+        mockMvc.perform(get("/metrics/notification-client"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(convertToJSON(stats)));
+    }
+
+    //---GET HTTP POOL STATS---
+    //HAPPY PATH
+    @Test
+    public void testGetHttpPoolStatsPass() throws Exception {
+        when(httpConnectionManager.getTotalStats()).thenReturn(new PoolStats(2, 1, 3, 50));
+        when(httpConnectionManager.getDefaultMaxPerRoute()).thenReturn(20);
+        mockMvc.perform(get("/metrics/http-pool"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(convertToJSON(new HttpPoolStatsDTO(2, 3, 1, 50, 20))));
+    }
+
+    //---GET CACHE STATS---
+    //HAPPY PATH
+    @Test
+    public void testGetCacheStatsPass() throws Exception {
+        CaffeineCache cache = new CaffeineCache("tagsByName", Caffeine.newBuilder().recordStats().build());
+        cache.get("travel"); //miss
+        cache.put("travel", "tag");
+        cache.get("travel"); //hit
+        cache.get("travel"); //hit
+        when(cacheManager.getCacheNames()).thenReturn(List.of("tagsByName"));
+        when(cacheManager.getCache("tagsByName")).thenReturn(cache);
+        mockMvc.perform(get("/metrics/caches"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(convertToJSON(List.of(new CacheStatsDTO("tagsByName", 1L, 2L, 1L, 2.0 / 3, 0L, null)))));
+    }
+
+    //---GET LIKE STATS---
+    //HAPPY PATH
+    @Test
+    public void testGetLikeStatsPass() throws Exception {
+        LikeCounterStatsDTO stats = new LikeCounterStatsDTO(120L, 20L, 2L, 100L, 3L, 0L, 1000L);
+        when(likeCounter.getStats()).thenReturn(stats);
+        mockMvc.perform(get("/metrics/likes"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(convertToJSON(stats)));
+    }
+
+    //---GET METHOD STATS---
+    //HAPPY PATH
+    @Test
+    public void testGetMethodStatsPass() throws Exception {
+        List<MethodStatsDTO> stats = List.of(new MethodStatsDTO("BlogService.getBlogById", 200L, 2L, 0.01,
+                1.5, 1.2, 8.0, 12.5, 13.0));
+        when(methodMetricsAspect.getStats()).thenReturn(stats);
+        mockMvc.perform(get("/metrics/methods"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(convertToJSON(stats)));
+
+        verify(methodMetricsAspect, times(1)).getStats();
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.blog.controller;
 
+import com.example.blog.cache.BlogJsonCache;
+import com.example.blog.dto.ResourceVersionDTO;
+import com.example.blog.dto.TagBulkResultDTO;
 import com.example.blog.dto.TagDTO;
 import com.example.blog.model.Blog;
 import com.example.blog.model.Tag;
@@ -10,10 +13,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -31,6 +36,9 @@ public class TagControllerTest {
     @MockBean
     TagService tagService;
 
+    @MockBean
+    BlogJsonCache blogJsonCache;
+
     private List<Tag> createMockTags(Integer id, String name, String description){
         List<Tag> tags = new ArrayList<>();
         List<Blog> blogs = new ArrayList<>();
@@ -178,6 +186,62 @@ public class TagControllerTest {
     }
 
 
+    //---ADD TAGS IF ABSENT (BULK)---
+    //HAPPY PATH
+    @Test
+    public void testAddTagsIfAbsentPass() throws Exception {
+        TagBulkResultDTO result = new TagBulkResultDTO(mockTagsList, List.of("test"));
+        when(tagService.addTagsIfAbsent(anyList())).thenReturn(result);
+        mockMvc.perform(post("/tags/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(convertToJSON(mockTagDTOList)))
+                .andExpect(status().isCreated())
+                .andExpect(content().json(convertToJSON(result)));
+
+        verify(tagService, times(1)).addTagsIfAbsent(anyList());
+    }
+
+    //HAPPY PATH - every name exists already, nothing created
+    @Test
+    public void testAddTagsIfAbsentNoneCreated() throws Exception {
+        when(tagService.addTagsIfAbsent(anyList())).thenReturn(new TagBulkResultDTO(List.of(), List.of("tag0")));
+        mockMvc.perform(post("/tags/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(convertToJSON(mockTagDTOList)))
+                .andExpect(status().isOk());
+    }
+
+    //SAD PATH - too many tags
+    @Test
+    public void testAddTagsIfAbsentTooMany() throws Exception {
+        when(tagService.addTagsIfAbsent(anyList())).thenThrow(new IllegalArgumentException("At most 5000 tags can be imported at once"));
+        mockMvc.perform(post("/tags/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(convertToJSON(mockTagDTOList)))
+                .andExpect(status().isBadRequest());
+    }
+
+    //SAD PATH - a blank name in the list
+    @Test
+    public void testAddTagsIfAbsentInvalidTag() throws Exception {
+        mockMvc.perform(post("/tags/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(convertToJSON(List.of(new TagDTO("", "Description", null)))))
+                .andExpect(status().isBadRequest());
+
+        verify(tagService, never()).addTagsIfAbsent(anyList());
+    }
+
+    //SAD PATH - a concurrent request added a name first
+    @Test
+    public void testAddTagsIfAbsentConflict() throws Exception {
+        when(tagService.addTagsIfAbsent(anyList())).thenThrow(new DataIntegrityViolationException("Unique index violated"));
+        mockMvc.perform(post("/tags/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(convertToJSON(mockTagDTOList)))
+                .andExpect(status().isConflict());
+    }
+
     //---UPDATE TAG---
     //HAPPY PATH
     @Test
@@ -275,6 +339,41 @@ public class TagControllerTest {
         verify(tagService,times(1)).getBlogsByTag(anyInt());
     }
 
+    //HAPPY PATH - conditional GET with If-Modified-Since
+    @Test
+    public void testGetBlogsByTagNotModified() throws Exception {
+        when(tagService.getBlogsVersion(1)).thenReturn(new ResourceVersionDTO(2L, LocalDateTime.of(2024, 1, 1, 12, 0)));
+        String lastModified = mockMvc.perform(get("/tags/{id}/blogs", 1))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Last-Modified");
+
+        mockMvc.perform(get("/tags/{id}/blogs", 1).header("If-Modified-Since", lastModified))
+                .andExpect(status().isNotModified());
+
+        verify(tagService, times(1)).getBlogsByTag(anyInt());
+    }
+
+    //HAPPY PATH - json cache enabled
+    @Test
+    public void testGetBlogsByTagCachedJson() throws Exception {
+        when(blogJsonCache.isEnabled()).thenReturn(true);
+        when(blogJsonCache.getBlogsByTag(eq(1), any())).thenReturn("[{\"id\":1}]".getBytes());
+        mockMvc.perform(get("/tags/{id}/blogs", 1))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":1}]"));
+
+        verify(tagService, never()).getBlogsByTag(anyInt());
+    }
+
+    //SAD PATH - json cache enabled, tag id not found
+    @Test
+    public void testGetBlogsByTagCachedJsonFail() throws Exception {
+        when(blogJsonCache.isEnabled()).thenReturn(true);
+        when(blogJsonCache.getBlogsByTag(eq(10000), any())).thenThrow(new Exception("Tag not found"));
+        mockMvc.perform(get("/tags/{id}/blogs", 10000))
+                .andExpect(status().isNotFound());
+    }
+
     //SAD PATH - tag id not found
     @Test
     public void testGetBlogsByTagFail() throws Exception {
@@ -1,6 +1,8 @@
 package com.example.blog.controller;
 
+import com.example.blog.cache.BlogJsonCache;
 import com.example.blog.dto.NotificationDTO;
+import com.example.blog.dto.ResourceVersionDTO;
 import com.example.blog.model.Address;
 import com.example.blog.model.Blog;
 import com.example.blog.model.User;
@@ -18,6 +20,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -36,6 +39,9 @@ public class UserControllerTest {
     @MockBean
     UserService userService;
 
+    @MockBean
+    BlogJsonCache blogJsonCache;
+
     private Address createAddress(Integer id, String street, String city, String state, String zipCode, String country) {
         Address address = new Address();
         User user = new User();
@@ -321,6 +327,32 @@ public class UserControllerTest {
         verify(userService, times(1)).getBlogsByUserId(anyInt());
     }
 
+    //HAPPY PATH - conditional GET with If-Modified-Since
+    @Test
+    public void testGetAllBlogsByUserNotModified() throws Exception {
+        when(userService.getBlogsVersion(1)).thenReturn(new ResourceVersionDTO(2L, LocalDateTime.of(2024, 1, 1, 12, 0)));
+        String lastModified = mockMvc.perform(get("/users/{id}/blogs", 1))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Last-Modified");
+
+        mockMvc.perform(get("/users/{id}/blogs", 1).header("If-Modified-Since", lastModified))
+                .andExpect(status().isNotModified());
+
+        verify(userService, times(1)).getBlogsByUserId(anyInt());
+    }
+
+    //HAPPY PATH - json cache enabled
+    @Test
+    public void testGetAllBlogsByUserCachedJson() throws Exception {
+        when(blogJsonCache.isEnabled()).thenReturn(true);
+        when(blogJsonCache.getBlogsByUser(eq(1), any())).thenReturn("[]".getBytes());
+        mockMvc.perform(get("/users/{id}/blogs", 1))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+
+        verify(userService, never()).getBlogsByUserId(anyInt());
+    }
+
     //SAD PATH - user not found
     @Test
     public void testGetAllBlogsByUserFail() throws Exception {
@@ -0,0 +1,256 @@
+package com.example.blog.likes;
+
+import com.example.blog.cache.BlogCache;
+import com.example.blog.cache.BlogJsonCache;
+import com.example.blog.configuration.CacheConfig;
+import com.example.blog.dto.LikeCounterStatsDTO;
+import com.example.blog.model.Address;
+import com.example.blog.model.Blog;
+import com.example.blog.model.Comment;
+import com.example.blog.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//flushes are run by the test (background flushing is off) inside the test's transaction, so they see the seeded rows
+@DataJpaTest(properties = "blog.likes.flush-ms=0")
+@Import({LikeCounter.class, BlogCache.class, BlogJsonCache.class, CacheConfig.class, JacksonAutoConfiguration.class})
+public class LikeCounterTest {
+    private static final LocalDateTime LONG_AGO = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    LikeCounter likeCounter;
+
+    @Autowired
+    BlogCache blogCache;
+
+    private Blog blog;
+    private Comment comment;
+    private LikeCounterStatsDTO before;
+
+    @BeforeEach
+    public void seed() {
+        likeCounter.flush(); //nothing left over from other tests
+        before = likeCounter.getStats();
+        blogCache.invalidateAll();
+
+        Address address = new Address(null, "123 1st Street", "Austin", "Texas", "78701", "USA", null);
+        User user = new User(null, "TestUsername1", "test@email.com", "password123", null, address, new ArrayList<>());
+        entityManager.persist(user);
+        blog = new Blog(null, "Blog Title", "Blog Content", 3, null, null, user, new ArrayList<>(), new ArrayList<>());
+        entityManager.persist(blog);
+        comment = new Comment(null, "Comment text", 1, null, "TestUsername1", blog);
+        entityManager.persist(comment);
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE blog SET last_modified_at = ? WHERE id = ?", Timestamp.valueOf(LONG_AGO), blog.getId());
+    }
+
+    private int blogLikes() {
+        return jdbcTemplate.queryForObject("SELECT likes FROM blog WHERE id = ?", Integer.class, blog.getId());
+    }
+
+    private int commentLikes() {
+        return jdbcTemplate.queryForObject("SELECT likes FROM comment WHERE id = ?", Integer.class, comment.getId());
+    }
+
+    private LocalDateTime blogLastModified() {
+        return jdbcTemplate.queryForObject("SELECT last_modified_at FROM blog WHERE id = ?", LocalDateTime.class, blog.getId());
+    }
+
+    //---LIKE BLOG---
+    //HAPPY PATH
+    @Test
+    public void testConcurrentLikesFlushed() throws Exception {
+        int threads = 8;
+        int likesPerThread = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < likesPerThread; j++) {
+                        likeCounter.likeBlog(blog.getId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(3, blogLikes(), "Likes are written only by a flush");
+
+        likeCounter.flush();
+
+        assertEquals(3 + threads * likesPerThread, blogLikes(), "No like should be lost");
+        assertTrue(blogLastModified().isAfter(LONG_AGO), "A flush should change the blog's etag");
+        LikeCounterStatsDTO stats = likeCounter.getStats();
+        assertEquals(threads * likesPerThread, stats.getReceived() - before.getReceived());
+        assertEquals(threads * likesPerThread, stats.getFlushed() - before.getFlushed());
+        assertEquals(1, stats.getFlushes() - before.getFlushes(), "All likes should be written by one flush");
+        assertEquals(0, stats.getPending());
+        assertEquals(0, stats.getPendingIds(), "A flushed blog should not stay in the counter");
+    }
+
+    //likes of one blog from several threads while flushes run, every like is written by exactly one flush
+    @Test
+    public void testConcurrentLikesDuringFlushes() throws Exception {
+        LikeCounter counter = new LikeCounter(0, 100);
+        AtomicLong written = new AtomicLong();
+        counter.jdbcTemplate = mock(JdbcTemplate.class);
+        when(counter.jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            args.forEach(arg -> written.addAndGet((Long) arg[0]));
+            return new int[args.size()];
+        });
+        counter.transactionTemplate = mock(TransactionTemplate.class);
+        when(counter.transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        counter.blogCache = mock(BlogCache.class);
+
+        int threads = 8;
+        int likesPerThread = 20000;
+        AtomicBoolean liking = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            Future<?> flusher = executor.submit(() -> {
+                while (liking.get()) {
+                    counter.flush();
+                }
+            });
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < likesPerThread; j++) {
+                        counter.likeBlog(1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            liking.set(false);
+            flusher.get();
+        } finally {
+            executor.shutdown();
+        }
+        counter.flush();
+
+        assertEquals(threads * likesPerThread, written.get(), "No like should be lost or written twice");
+        assertEquals(threads * likesPerThread, counter.getStats().getFlushed());
+        assertEquals(0, counter.getStats().getPendingIds());
+    }
+
+    @Test
+    public void testFlushInvalidatesCachedBlog() {
+        AtomicInteger loads = new AtomicInteger();
+        blogCache.get(blog.getId(), id -> { loads.incrementAndGet(); return blog; });
+        likeCounter.likeBlog(blog.getId());
+        likeCounter.flush();
+        blogCache.get(blog.getId(), id -> { loads.incrementAndGet(); return blog; });
+
+        assertEquals(2, loads.get(), "The blog should be reloaded with its new likes");
+    }
+
+    //SAD PATH - likes never go below zero
+    @Test
+    public void testUnlikeBlogNotBelowZero() {
+        for (int i = 0; i < 5; i++) {
+            likeCounter.unlikeBlog(blog.getId());
+        }
+        likeCounter.flush();
+
+        assertEquals(0, blogLikes());
+    }
+
+    //SAD PATH - likes of a blog that doesn't exist are dropped
+    @Test
+    public void testLikeMissingBlogDropped() {
+        likeCounter.likeBlog(10000);
+        likeCounter.flush();
+
+        assertEquals(0, likeCounter.getStats().getPending());
+        assertEquals(0, likeCounter.getStats().getFailedFlushes() - before.getFailedFlushes());
+    }
+
+    //SAD PATH - likes of new ids are rejected while too many ids are pending, until the next flush
+    @Test
+    public void testTooManyPendingIdsRejected() {
+        LikeCounter counter = new LikeCounter(0, 2);
+        counter.likeBlog(1);
+        counter.likeBlog(2);
+
+        assertThrows(IllegalStateException.class, () -> counter.likeBlog(3));
+        counter.likeBlog(2); //an id that is already pending is still counted
+        counter.likeComment(3); //comments have their own limit
+        assertEquals(4, counter.getStats().getPending());
+        assertEquals(3, counter.getStats().getPendingIds());
+    }
+
+    //SAD PATH - a failed flush keeps its likes for the next flush
+    @Test
+    public void testFailedFlushRetried() {
+        JdbcTemplate failing = mock(JdbcTemplate.class);
+        when(failing.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("Database down"));
+        likeCounter.likeBlog(blog.getId());
+        likeCounter.likeBlog(blog.getId());
+
+        likeCounter.jdbcTemplate = failing;
+        try {
+            likeCounter.flush();
+        } finally {
+            likeCounter.jdbcTemplate = jdbcTemplate;
+        }
+        assertEquals(1, likeCounter.getStats().getFailedFlushes() - before.getFailedFlushes());
+        assertEquals(2, likeCounter.getStats().getPending());
+
+        likeCounter.flush();
+        assertEquals(5, blogLikes());
+    }
+
+    //---LIKE COMMENT---
+    //HAPPY PATH
+    @Test
+    public void testLikeCommentTouchesBlog() {
+        likeCounter.likeComment(comment.getId());
+        likeCounter.likeComment(comment.getId());
+        likeCounter.likeComment(comment.getId());
+        likeCounter.unlikeComment(comment.getId());
+        likeCounter.flush();
+
+        assertEquals(3, commentLikes());
+        assertEquals(3, blogLikes(), "Blog likes should not change");
+        assertTrue(blogLastModified().isAfter(LONG_AGO), "The comment is part of the blog's response, so its etag changes");
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.blog.notification;
+
+import com.example.blog.dto.CircuitBreakerStatsDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificationClientTest {
+    private String fail() {
+        throw new ResourceAccessException("Connection refused");
+    }
+
+    //---EXECUTE---
+    //HAPPY PATH
+    @Test
+    public void testExecutePass() {
+        NotificationClient notificationClient = new NotificationClient(3, 10000, 10, 0);
+        assertEquals("ok", notificationClient.execute(() -> "ok"));
+
+        CircuitBreakerStatsDTO stats = notificationClient.getStats();
+        assertEquals("CLOSED", stats.getState());
+        assertEquals(1, stats.getSuccessfulCalls());
+        assertEquals(0, stats.getActiveCalls());
+    }
+
+    //SAD PATH - failed call falls back
+    @Test
+    public void testExecuteFallback() {
+        NotificationClient notificationClient = new NotificationClient(3, 10000, 10, 0);
+        assertEquals("fallback", notificationClient.execute(this::fail, () -> "fallback"));
+        assertThrows(NotificationServiceUnavailableException.class, () -> notificationClient.execute(this::fail));
+        assertEquals(2, notificationClient.getStats().getFailedCalls());
+    }
+
+    //SAD PATH - 4xx is the caller's fault, it doesn't count against the service
+    @Test
+    public void testExecuteClientError() {
+        NotificationClient notificationClient = new NotificationClient(1, 10000, 10, 0);
+        assertThrows(HttpClientErrorException.class, () -> notificationClient.execute(() -> {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        }));
+        assertEquals("CLOSED", notificationClient.getStats().getState());
+    }
+
+    //---CIRCUIT BREAKER---
+    @Test
+    public void testCircuitOpensAndFailsFast() {
+        NotificationClient notificationClient = new NotificationClient(3, 10000, 10, 0);
+        for (int i = 0; i < 3; i++) {
+            notificationClient.execute(this::fail, () -> null);
+        }
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(NotificationServiceUnavailableException.class, () -> notificationClient.execute(calls::incrementAndGet));
+
+        assertEquals(0, calls.get(), "The service should not be called while the circuit is open");
+        CircuitBreakerStatsDTO stats = notificationClient.getStats();
+        assertEquals("OPEN", stats.getState());
+        assertEquals(1, stats.getRejectedByCircuitBreaker());
+        assertEquals(1L, stats.getTransitions().get("CLOSED->OPEN"));
+    }
+
+    @Test
+    public void testHalfOpenProbe() throws InterruptedException {
+        NotificationClient notificationClient = new NotificationClient(1, 50, 10, 0);
+        notificationClient.execute(this::fail, () -> null); //opens the circuit
+        Thread.sleep(60);
+
+        notificationClient.execute(this::fail, () -> null); //failed probe opens it again
+        assertEquals("OPEN", notificationClient.getStats().getState());
+        Thread.sleep(60);
+
+        assertEquals("ok", notificationClient.execute(() -> "ok")); //successful probe closes it
+        CircuitBreakerStatsDTO stats = notificationClient.getStats();
+        assertEquals("CLOSED", stats.getState());
+        assertEquals(2L, stats.getTransitions().get("OPEN->HALF_OPEN"));
+        assertEquals(1L, stats.getTransitions().get("HALF_OPEN->OPEN"));
+        assertEquals(1L, stats.getTransitions().get("HALF_OPEN->CLOSED"));
+    }
+
+    //SAD PATH - an Error thrown by the probe (e.g. while converting the response) must not keep the probe slot forever
+    @Test
+    public void testHalfOpenProbeError() throws InterruptedException {
+        NotificationClient notificationClient = new NotificationClient(1, 50, 10, 0);
+        notificationClient.execute(this::fail, () -> null); //opens the circuit
+        Thread.sleep(60);
+
+        assertThrows(StackOverflowError.class, () -> notificationClient.execute(() -> {
+            throw new StackOverflowError();
+        }));
+        CircuitBreakerStatsDTO stats = notificationClient.getStats();
+        assertEquals("OPEN", stats.getState(), "The failed probe should open the circuit again");
+        assertEquals(2, stats.getFailedCalls());
+        assertEquals(0, stats.getActiveCalls());
+        Thread.sleep(60);
+
+        assertEquals("ok", notificationClient.execute(() -> "ok"), "The next probe should be let through");
+        assertEquals("CLOSED", notificationClient.getStats().getState());
+    }
+
+    //---BULKHEAD---
+    @Test
+    public void testBulkheadRejectsWhenFull() throws InterruptedException {
+        NotificationClient notificationClient = new NotificationClient(3, 10000, 1, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread slowCall = new Thread(() -> notificationClient.execute(() -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "slow";
+        }));
+        slowCall.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals("fallback", notificationClient.execute(() -> "fast", () -> "fallback"));
+        assertEquals(1, notificationClient.getStats().getRejectedByBulkhead());
+        assertEquals(1, notificationClient.getStats().getActiveCalls());
+
+        release.countDown();
+        slowCall.join();
+        assertEquals("CLOSED", notificationClient.getStats().getState(), "Bulkhead rejections should not open the circuit");
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.blog.notification;
+
+import com.example.blog.dto.NotificationDTO;
+import com.example.blog.dto.NotificationDispatchStatsDTO;
+import com.example.blog.model.NotificationOutbox;
+import com.example.blog.repository.INotificationOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationDispatcherTest {
+    private static final String URL = "http://localhost:8081/notifications/batch";
+
+    private RestTemplate restTemplate = mock(RestTemplate.class);
+    private INotificationOutboxRepository outboxRepository = mock(INotificationOutboxRepository.class);
+    private NotificationDispatcher dispatcher;
+
+    private NotificationDispatcher createDispatcher(int batchSize, long pollMs, boolean relayEnabled) {
+        NotificationDispatcher notificationDispatcher = new NotificationDispatcher(URL, batchSize, 0, pollMs, relayEnabled);
+        notificationDispatcher.restTemplate = restTemplate;
+        notificationDispatcher.outboxRepository = outboxRepository;
+        notificationDispatcher.notificationClient = new NotificationClient(5, 10000, 10, 0);
+        return notificationDispatcher;
+    }
+
+    private List<NotificationOutbox> createOutboxRows(int firstId, int count) {
+        List<NotificationOutbox> rows = new ArrayList<>();
+        for (int id = firstId; id < firstId + count; id++) {
+            rows.add(new NotificationOutbox(id, "TestUsername1", 1, id, 1, null, 0, null));
+        }
+        return rows;
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    //---ENQUEUE---
+    @Test
+    public void testEnqueueSavesToOutbox() {
+        dispatcher = createDispatcher(50, 60000, false);
+        dispatcher.enqueue(new NotificationDTO("TestUsername1", 2, 3, 4));
+
+        ArgumentCaptor<NotificationOutbox> outbox = ArgumentCaptor.forClass(NotificationOutbox.class);
+        verify(outboxRepository, times(1)).save(outbox.capture());
+        assertEquals(new NotificationOutbox(null, "TestUsername1", 2, 3, 4, null, 0, null), outbox.getValue());
+        verifyNoInteractions(restTemplate); //nothing is sent by the caller
+    }
+
+    //---SEND OUTBOX---
+    //HAPPY PATH
+    @Test
+    public void testSendOutboxInBatches() {
+        when(outboxRepository.findAllByDeadLetteredAtIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(createOutboxRows(1, 3), createOutboxRows(4, 1), new ArrayList<>());
+        dispatcher = createDispatcher(3, 60000, false);
+
+        assertTrue(dispatcher.sendOutbox());
+
+        ArgumentCaptor<List> batches = ArgumentCaptor.forClass(List.class);
+        verify(restTemplate, times(2)).postForEntity(eq(URL), batches.capture(), eq(Void.class));
+        assertEquals(3, batches.getAllValues().get(0).size());
+        assertEquals(new NotificationDTO("TestUsername1", 1, 4, 1), batches.getAllValues().get(1).get(0));
+        verify(outboxRepository, times(1)).deleteAllByIdInBatch(List.of(1, 2, 3));
+        verify(outboxRepository, times(1)).deleteAllByIdInBatch(List.of(4));
+
+        NotificationDispatchStatsDTO stats = dispatcher.getStats();
+        assertEquals(4, stats.getSent());
+        assertEquals(2, stats.getBatches());
+    }
+
+    //SAD PATH - microservice down, rows stay in the outbox
+    @Test
+    public void testSendOutboxFail() {
+        when(outboxRepository.findAllByDeadLetteredAtIsNullOrderByIdAsc(any(Pageable.class))).thenReturn(createOutboxRows(1, 2));
+        when(restTemplate.postForEntity(eq(URL), anyList(), eq(Void.class))).thenThrow(new ResourceAccessException("Connection refused"));
+        dispatcher = createDispatcher(50, 60000, false);
+
+        assertFalse(dispatcher.sendOutbox());
+
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxRepository, times(1)).incrementAttempts(List.of(1, 2));
+        NotificationDispatchStatsDTO stats = dispatcher.getStats();
+        assertEquals(0, stats.getSent());
+        assertEquals(2, stats.getFailed());
+    }
+
+    //SAD PATH - a batch with a notification the microservice rejects is sent one at a time, only the bad one is dead-lettered
+    @Test
+    public void testSendOutboxPoisonRowDeadLettered() {
+        when(outboxRepository.findAllByDeadLetteredAtIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(createOutboxRows(1, 3), new ArrayList<>());
+        when(restTemplate.postForEntity(eq(URL), anyList(), eq(Void.class))).thenAnswer(invocation -> {
+            List<NotificationDTO> batch = invocation.getArgument(1);
+            if (batch.stream().anyMatch(notificationDTO -> notificationDTO.getCommentId() == 2)) {
+                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Notification DTOs at index [1] must contain blogger id");
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        });
+        dispatcher = createDispatcher(50, 60000, false);
+
+        assertTrue(dispatcher.sendOutbox(), "The rest of the outbox should not be blocked");
+
+        verify(restTemplate, times(4)).postForEntity(eq(URL), anyList(), eq(Void.class)); //the batch, then each row
+        verify(outboxRepository, times(1)).deleteAllByIdInBatch(List.of(1));
+        verify(outboxRepository, times(1)).deleteAllByIdInBatch(List.of(3));
+        verify(outboxRepository, times(1)).deadLetter(eq(2), any(LocalDateTime.class));
+        NotificationDispatchStatsDTO stats = dispatcher.getStats();
+        assertEquals(2, stats.getSent());
+        assertEquals(1, stats.getFailed());
+    }
+
+    //SAD PATH - a 4xx that isn't about the notifications (wrong url) keeps them for later
+    @Test
+    public void testSendOutboxNotFoundRetried() {
+        when(outboxRepository.findAllByDeadLetteredAtIsNullOrderByIdAsc(any(Pageable.class))).thenReturn(createOutboxRows(1, 2));
+        when(restTemplate.postForEntity(eq(URL), anyList(), eq(Void.class))).thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        dispatcher = createDispatcher(50, 60000, false);
+
+        assertFalse(dispatcher.sendOutbox());
+
+        verify(restTemplate, times(1)).postForEntity(eq(URL), anyList(), eq(Void.class));
+        verify(outboxRepository, never()).deadLetter(anyInt(), any());
+        verify(outboxRepository, times(1)).incrementAttempts(List.of(1, 2));
+    }
+
+    //---RELAY---
+    @Test
+    public void testWakeUpSendsWithoutWaitingForPoll() {
+        when(outboxRepository.findAllByDeadLetteredAtIsNullOrderByIdAsc(any(Pageable.class))).thenReturn(createOutboxRows(1, 1), new ArrayList<>());
+        dispatcher = createDispatcher(50, 60000, true); //poll interval longer than the test
+        dispatcher.start();
+        dispatcher.wakeUp();
+
+        verify(restTemplate, timeout(2000).times(1)).postForEntity(eq(URL), anyList(), eq(Void.class));
+        verify(outboxRepository, timeout(2000).times(1)).deleteAllByIdInBatch(List.of(1));
+    }
+
+    @Test
+    public void testRelayDisabled() throws InterruptedException {
+        dispatcher = createDispatcher(50, 10, false);
+        dispatcher.start();
+        dispatcher.wakeUp();
+        Thread.sleep(100);
+
+        verifyNoInteractions(outboxRepository, restTemplate);
+    }
+}
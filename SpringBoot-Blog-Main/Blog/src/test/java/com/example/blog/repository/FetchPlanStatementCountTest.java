@@ -0,0 +1,127 @@
+package com.example.blog.repository;
+
+import com.example.blog.cache.BlogCache;
+import com.example.blog.cache.BlogJsonCache;
+import com.example.blog.cache.NaturalKeyCache;
+import com.example.blog.configuration.CacheConfig;
+import com.example.blog.configuration.RestTemplateConfig;
+import com.example.blog.model.*;
+import com.example.blog.notification.NotificationClient;
+import com.example.blog.notification.NotificationDispatcher;
+import com.example.blog.search.BlogSearchIndex;
+import com.example.blog.search.FullTextSearchInitializer;
+import com.example.blog.service.BlogService;
+import com.example.blog.service.CommentService;
+import com.example.blog.service.TagService;
+import com.example.blog.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//guards the fetch plans of the read endpoints - each one must run a fixed number of SQL statements
+//(including lazy loads triggered while serializing) no matter how many blogs, comments or tags are returned
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "blog.notifications.relay.enabled=false"}) //the relay polls the outbox, which would add to the statement counts
+@Import({BlogService.class, UserService.class, TagService.class, CommentService.class, RestTemplateConfig.class,
+        FullTextSearchInitializer.class, BlogSearchIndex.class, NotificationDispatcher.class,
+        NotificationClient.class, CacheConfig.class, NaturalKeyCache.class,
+        BlogCache.class, BlogJsonCache.class, JacksonAutoConfiguration.class})
+public class FetchPlanStatementCountTest {
+    private static final int BLOG_COUNT = 10;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    TagService tagService;
+
+    ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+
+    private Statistics statistics;
+    private User user;
+    private Tag tag;
+    private Blog firstBlog;
+
+    @BeforeEach
+    public void seed() {
+        Address address = new Address(null, "123 1st Street", "Austin", "Texas", "78701", "USA", null);
+        user = new User(null, "TestUsername1", "test@email.com", "password123", null, address, new ArrayList<>());
+        entityManager.persist(user);
+
+        tag = new Tag(null, "travel", "Tag Description", new ArrayList<>());
+        Tag tag2 = new Tag(null, "food", "Tag Description2", new ArrayList<>());
+        entityManager.persist(tag);
+        entityManager.persist(tag2);
+
+        for (int i = 0; i < BLOG_COUNT; i++) { //every blog has two tags and two comments
+            Blog blog = new Blog(null, "Blog Title " + i, "Blog Content " + i, 0, null, null, user,
+                    new ArrayList<>(), new ArrayList<>(List.of(tag, tag2)));
+            entityManager.persist(blog);
+            for (int j = 0; j < 2; j++) {
+                entityManager.persist(new Comment(null, "Text " + j, 0, null, "TestUsername1", blog));
+            }
+            if (firstBlog == null) {
+                firstBlog = blog;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear(); //start every read from an empty persistence context
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    //---GET BLOG BY ID---
+    @Test
+    public void testGetBlogByIdStatementCount() throws Exception {
+        Blog blog = blogService.getBlogById(firstBlog.getId());
+        mapper.writeValueAsString(blog);
+
+        assertEquals(2, blog.getTags().size(), "Both tags should be loaded");
+        assertEquals(2, blog.getComments().size(), "Both comments should be loaded");
+        assertEquals(2, statistics.getPrepareStatementCount(), "blog + tags in one query, comments in one more");
+    }
+
+    //---GET BLOGS BY USER ID---
+    @Test
+    public void testGetBlogsByUserStatementCount() throws Exception {
+        List<Blog> blogs = userService.getBlogsByUserId(user.getId());
+        mapper.writeValueAsString(blogs);
+
+        assertEquals(BLOG_COUNT, blogs.size(), "All blogs of the user should be returned");
+        assertEquals(3, statistics.getPrepareStatementCount(), "user + blogs, then one batch each for comments and tags");
+    }
+
+    //---GET BLOGS BY TAG ID---
+    @Test
+    public void testGetBlogsByTagStatementCount() throws Exception {
+        List<Blog> blogs = tagService.getBlogsByTag(tag.getId());
+        mapper.writeValueAsString(blogs);
+
+        assertEquals(BLOG_COUNT, blogs.size(), "All blogs with the tag should be returned");
+        assertEquals(3, statistics.getPrepareStatementCount(), "tag + blogs, then one batch each for comments and tags");
+    }
+}
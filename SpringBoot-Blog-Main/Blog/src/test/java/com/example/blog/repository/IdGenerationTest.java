@@ -0,0 +1,111 @@
+package com.example.blog.repository;
+
+import com.example.blog.configuration.IdGenerationConfig;
+import com.example.blog.configuration.SequenceIncrementInitializer;
+import com.example.blog.model.*;
+import jakarta.persistence.SequenceGenerator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//checks that bulk inserts fetch ids from the sequences once per block of 50 instead of once per row
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.example.blog.repository.IdGenerationTest$SequenceCallCounter")
+@Import({IdGenerationConfig.class, SequenceIncrementInitializer.class})
+public class IdGenerationTest {
+    private static final int BLOCK_SIZE = 50;
+
+    //counts the nextval calls hibernate sends (H2 and PostgreSQL syntax)
+    public static class SequenceCallCounter implements StatementInspector {
+        static final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            String lower = sql.toLowerCase();
+            if (lower.contains("next value for") || lower.contains("nextval(")) {
+                calls.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    ITagRepository tagRepository;
+
+    @Autowired
+    ICommentRepository commentRepository;
+
+    @Autowired
+    SequenceIncrementInitializer sequenceIncrementInitializer;
+
+    private Blog blog;
+
+    @BeforeEach
+    public void seed() {
+        Address address = new Address(null, "123 1st Street", "Austin", "Texas", "78701", "USA", null);
+        User user = new User(null, "TestUsername1", "test@email.com", "password123", null, address, new ArrayList<>());
+        entityManager.persist(user);
+        blog = new Blog(null, "Blog Title", "Blog Content", 0, null, null, user, new ArrayList<>(), new ArrayList<>());
+        entityManager.persist(blog);
+        entityManager.flush();
+        SequenceCallCounter.calls.set(0);
+    }
+
+    //---BULK TAGS---
+    @Test
+    public void testBulkTagsFetchIdsPerBlock() {
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < 2 * BLOCK_SIZE; i++) {
+            tags.add(new Tag(null, "tag" + i, "Tag Description", new ArrayList<>()));
+        }
+        tagRepository.saveAll(tags);
+        entityManager.flush();
+
+        assertTrue(SequenceCallCounter.calls.get() >= 1, "Ids come from the sequence");
+        assertTrue(SequenceCallCounter.calls.get() <= 3, "100 tags need 2 blocks, plus one more if an earlier block ran out: "
+                + SequenceCallCounter.calls.get());
+        assertEquals(tags.size(), tags.stream().map(Tag::getId).distinct().count(), "Ids must be unique");
+    }
+
+    //---BULK COMMENTS---
+    @Test
+    public void testBulkCommentsFetchIdsPerBlock() {
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < 3 * BLOCK_SIZE; i++) {
+            comments.add(new Comment(null, "Text " + i, 0, null, "TestUsername1", blog));
+        }
+        commentRepository.saveAll(comments);
+        entityManager.flush();
+
+        assertTrue(SequenceCallCounter.calls.get() >= 2, "Ids come from the sequence");
+        assertTrue(SequenceCallCounter.calls.get() <= 4, "150 comments need 3 blocks, plus one more if an earlier block ran out: "
+                + SequenceCallCounter.calls.get());
+        Set<Integer> ids = new HashSet<>();
+        comments.forEach(comment -> ids.add(comment.getId()));
+        assertEquals(comments.size(), ids.size(), "Ids must be unique");
+    }
+
+    //---SEQUENCE GENERATORS---
+    @Test
+    public void testEveryEntityUsesBlocks() {
+        List<SequenceGenerator> generators = sequenceIncrementInitializer.sequenceGenerators();
+
+        assertEquals(6, generators.size(), "Blog, Comment, Tag, User, Address and NotificationOutbox");
+        generators.forEach(generator -> assertEquals(BLOCK_SIZE, generator.allocationSize(), generator.name()));
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.blog.repository;
+
+import com.example.blog.cache.BlogCache;
+import com.example.blog.cache.BlogJsonCache;
+import com.example.blog.cache.NaturalKeyCache;
+import com.example.blog.configuration.CacheConfig;
+import com.example.blog.configuration.IdGenerationConfig;
+import com.example.blog.configuration.JdbcBatchConfig;
+import com.example.blog.configuration.RestTemplateConfig;
+import com.example.blog.dto.BlogDTO;
+import com.example.blog.dto.CommentDTO;
+import com.example.blog.dto.TagBulkResultDTO;
+import com.example.blog.dto.TagDTO;
+import com.example.blog.model.*;
+import com.example.blog.notification.NotificationClient;
+import com.example.blog.notification.NotificationDispatcher;
+import com.example.blog.search.BlogSearchIndex;
+import com.example.blog.search.FullTextSearchInitializer;
+import com.example.blog.service.BlogService;
+import com.example.blog.service.CommentService;
+import com.example.blog.service.TagService;
+import com.example.blog.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//checks that bulk writes go out in jdbc batches: the number of prepared statements grows with the number of
+//batches (rows / 50 per table), not with the number of rows
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "blog.notifications.relay.enabled=false"})
+@Import({BlogService.class, UserService.class, TagService.class, CommentService.class, RestTemplateConfig.class,
+        FullTextSearchInitializer.class, BlogSearchIndex.class, NotificationDispatcher.class,
+        NotificationClient.class, CacheConfig.class, NaturalKeyCache.class, BlogCache.class, BlogJsonCache.class,
+        JacksonAutoConfiguration.class, JdbcBatchConfig.class, IdGenerationConfig.class})
+public class JdbcBatchTest {
+    private static final int ROWS = 100;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    CommentService commentService;
+
+    @Autowired
+    TagService tagService;
+
+    private Statistics statistics;
+    private User user;
+    private Blog blog;
+    private Tag tag;
+
+    @BeforeEach
+    public void seed() {
+        Address address = new Address(null, "123 1st Street", "Austin", "Texas", "78701", "USA", null);
+        user = new User(null, "TestUsername1", "test@email.com", "password123", null, address, new ArrayList<>());
+        entityManager.persist(user);
+        tag = new Tag(null, "travel", "Tag Description", new ArrayList<>());
+        entityManager.persist(tag);
+        blog = new Blog(null, "Blog Title", "Blog Content", 0, null, null, user, new ArrayList<>(), new ArrayList<>());
+        entityManager.persist(blog);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    //---ADD BLOGS (BULK)---
+    @Test
+    public void testCreateBlogsBatched() throws Exception {
+        List<BlogDTO> blogDTOs = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            blogDTOs.add(new BlogDTO("Blog Title " + i, "Blog Content " + i, 0, user.getId(), List.of(tag.getId())));
+        }
+        blogService.createBlogs(blogDTOs);
+        entityManager.flush();
+
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        //user + tag lookups, up to 3 sequence calls, 2 batches of blogs and 2 batches of blog_tags
+        assertTrue(statistics.getPrepareStatementCount() <= 9, "Expected batched inserts but got "
+                + statistics.getPrepareStatementCount() + " statements for " + ROWS + " blogs");
+        assertEquals(ROWS + 1, entityManager.getEntityManager()
+                .createQuery("select count(b) from Blog b", Long.class).getSingleResult());
+    }
+
+    //---ADD COMMENTS (BULK)---
+    @Test
+    public void testCreateCommentsBatched() throws Exception {
+        List<CommentDTO> commentDTOs = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            commentDTOs.add(new CommentDTO("Text " + i, 0, "TestUsername1", blog.getId()));
+        }
+        commentService.createComments(commentDTOs);
+        entityManager.flush();
+
+        assertEquals(2 * ROWS, statistics.getEntityInsertCount(), "A comment and an outbox row per comment");
+        //blog + user lookups, up to 6 sequence calls, 2 batches each of comments and outbox rows, 1 blog update
+        assertTrue(statistics.getPrepareStatementCount() <= 13, "Expected batched inserts but got "
+                + statistics.getPrepareStatementCount() + " statements for " + ROWS + " comments");
+    }
+
+    //---ADD TAGS---
+    @Test
+    public void testAddTagsBatched() throws Exception {
+        List<TagDTO> tagDTOs = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            tagDTOs.add(new TagDTO("tag" + i, "Tag Description", null));
+        }
+        tagService.addTags(tagDTOs);
+        entityManager.flush();
+
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        //one name check for all tags, up to 3 sequence calls, 2 batches of tags
+        assertTrue(statistics.getPrepareStatementCount() <= 6, "Expected batched inserts but got "
+                + statistics.getPrepareStatementCount() + " statements for " + ROWS + " tags");
+    }
+
+    //---ADD TAGS IF ABSENT (BULK)---
+    @Test
+    public void testAddTagsIfAbsentBatched() throws Exception {
+        List<TagDTO> tagDTOs = new ArrayList<>();
+        tagDTOs.add(new TagDTO("Travel", "Tag Description", null)); //exists already
+        for (int i = 0; i < ROWS; i++) {
+            tagDTOs.add(new TagDTO("tag" + i, "Tag Description", null));
+        }
+        TagBulkResultDTO result = tagService.addTagsIfAbsent(tagDTOs);
+        entityManager.flush();
+
+        assertEquals(List.of("travel"), result.getExisting());
+        assertEquals(ROWS, result.getCreated().size());
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 6, "Expected one name check and batched inserts but got "
+                + statistics.getPrepareStatementCount() + " statements for " + ROWS + " tags");
+    }
+
+    //SAD PATH - the unique index rejects a name that skipped the checks (e.g. a concurrent insert)
+    @Test
+    public void testTagNameUnique() {
+        entityManager.persist(new Tag(null, "travel", "Other Description", new ArrayList<>()));
+        assertThrows(PersistenceException.class, () -> entityManager.flush());
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.blog.repository;
+
+import com.example.blog.cache.BlogCache;
+import com.example.blog.cache.BlogJsonCache;
+import com.example.blog.cache.NaturalKeyCache;
+import com.example.blog.configuration.CacheConfig;
+import com.example.blog.configuration.RestTemplateConfig;
+import com.example.blog.dto.TagDTO;
+import com.example.blog.model.Address;
+import com.example.blog.model.Tag;
+import com.example.blog.model.User;
+import com.example.blog.notification.NotificationClient;
+import com.example.blog.search.BlogSearchIndex;
+import com.example.blog.service.TagService;
+import com.example.blog.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//checks that tag/user id lookups by name are served from the cache and that writes through the services invalidate it
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({CacheConfig.class, NaturalKeyCache.class, TagService.class, UserService.class, RestTemplateConfig.class,
+        BlogSearchIndex.class, NotificationClient.class, BlogCache.class,
+        BlogJsonCache.class, JacksonAutoConfiguration.class})
+public class NaturalKeyCacheTest {
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    ITagRepository tagRepository;
+
+    @Autowired
+    IUserRepository userRepository;
+
+    @Autowired
+    TagService tagService;
+
+    @Autowired
+    UserService userService;
+
+    private Statistics statistics;
+    private Tag tag;
+    private User user;
+
+    @BeforeEach
+    public void seed() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear()); //caches outlive each test's rollback
+
+        tag = new Tag(null, "travel", "Tag Description", new ArrayList<>());
+        entityManager.persist(tag);
+        Address address = new Address(null, "123 1st Street", "Austin", "Texas", "78701", "USA", null);
+        user = new User(null, "TestUsername1", "test@email.com", "password123", null, address, new ArrayList<>());
+        entityManager.persist(user);
+        entityManager.flush();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    //---FIND TAG BY NAME---
+    @Test
+    public void testFindTagByNameCached() {
+        assertNotNull(tagRepository.findIdByName("travel"));
+        assertNotNull(tagRepository.findIdByName("travel"));
+        assertNull(tagRepository.findIdByName("food"));
+        assertNull(tagRepository.findIdByName("food"));
+
+        assertEquals(2, statistics.getPrepareStatementCount(), "One query per name, repeats come from the cache");
+    }
+
+    @Test
+    public void testAddTagsEvictsNotFound() throws Exception {
+        assertNull(tagRepository.findIdByName("food"));
+        tagService.addTags(List.of(new TagDTO("food", "Tag Description2", null)));
+
+        assertNotNull(tagRepository.findIdByName("food"), "A new tag must not be hidden by a cached miss");
+    }
+
+    //a lookup by another request between the eviction and the commit still finds no tag and caches the miss again,
+    //the eviction after the commit drops it
+    @Test
+    public void testAddTagsEvictsNotFoundAfterCommit() throws Exception {
+        assertNull(tagRepository.findIdByName("food"));
+        tagService.addTags(List.of(new TagDTO("food", "Tag Description2", null)));
+        assertNull(CompletableFuture.supplyAsync(() -> tagRepository.findIdByName("food")).get(), "Not committed yet");
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        try {
+            statistics.clear();
+            assertNotNull(tagRepository.findIdByName("food"), "A committed tag must not be hidden by a cached miss");
+            assertNotNull(tagRepository.findIdByName("food"));
+            assertEquals(1, statistics.getPrepareStatementCount(), "The lookup after the commit is cached again");
+        } finally { //committed rows would be seen by the other tests
+            TestTransaction.start();
+            tagRepository.deleteAll();
+            userRepository.deleteAll();
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+        }
+    }
+
+    @Test
+    public void testUpdateTagEvictsOldAndNewName() throws Exception {
+        assertNotNull(tagRepository.findIdByName("travel"));
+        tagService.updateTag(tag.getId(), new Tag(null, "Food", "Tag Description2", null));
+
+        assertNull(tagRepository.findIdByName("travel"), "The old name must not be found after a rename");
+        assertEquals(tag.getId(), tagRepository.findIdByName("food"));
+    }
+
+    //only the id is cached, the tag is loaded in the caller's session (its blogs can still be loaded lazily)
+    @Test
+    public void testGetTagByNameLoadsTagInSession() throws Exception {
+        tagService.getTagByName("travel");
+        entityManager.clear();
+        Tag result = tagService.getTagByName("Travel");
+
+        assertEquals(tag.getId(), result.getId());
+        assertTrue(entityManager.getEntityManager().contains(result), "The cached lookup must not return a detached tag");
+    }
+
+    @Test
+    public void testDeleteTagEvicts() throws Exception {
+        assertNotNull(tagRepository.findIdByName("travel"));
+        tagService.deleteTag(tag.getId());
+
+        assertNull(tagRepository.findIdByName("travel"));
+    }
+
+    //---FIND USER BY USERNAME---
+    @Test
+    public void testFindUserByUsernameCached() {
+        assertNotNull(userRepository.findIdByUsername("TestUsername1"));
+        assertNotNull(userRepository.findIdByUsername("TestUsername1"));
+
+        assertEquals(1, statistics.getPrepareStatementCount(), "Repeated lookups come from the cache");
+    }
+
+    @Test
+    public void testUpdateUserEvictsOldAndNewUsername() throws Exception {
+        assertNotNull(userRepository.findIdByUsername("TestUsername1"));
+        Address address = new Address(null, "123 1st Street", "Austin", "Texas", "78701", "USA", null);
+        userService.updateUser(user.getId(), new User(null, "TestUsername2", "test@email.com", "password123", null, address, null));
+
+        assertNull(userRepository.findIdByUsername("TestUsername1"), "The old username must not be found after a rename");
+        assertEquals(user.getId(), userRepository.findIdByUsername("TestUsername2"));
+    }
+
+    @Test
+    public void testDeleteUserEvicts() throws Exception {
+        assertNotNull(userRepository.findIdByUsername("TestUsername1"));
+        userService.deleteUser(user.getId());
+
+        assertNull(userRepository.findIdByUsername("TestUsername1"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.blog.repository;
+
+import com.example.blog.cache.BlogCache;
+import com.example.blog.cache.BlogJsonCache;
+import com.example.blog.cache.NaturalKeyCache;
+import com.example.blog.configuration.CacheConfig;
+import com.example.blog.configuration.RestTemplateConfig;
+import com.example.blog.dto.ResourceVersionDTO;
+import com.example.blog.model.*;
+import com.example.blog.notification.NotificationClient;
+import com.example.blog.notification.NotificationDispatcher;
+import com.example.blog.search.BlogSearchIndex;
+import com.example.blog.search.FullTextSearchInitializer;
+import com.example.blog.service.BlogService;
+import com.example.blog.service.CommentService;
+import com.example.blog.service.TagService;
+import com.example.blog.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//the versions behind the etags of GET /blogs/{id}, /users/{id}/blogs and /tags/{id}/blogs must change with
+//every change the responses show, including comment and tag changes that don't save the blog itself
+@DataJpaTest(properties = "blog.notifications.relay.enabled=false")
+@Import({BlogService.class, UserService.class, TagService.class, CommentService.class, RestTemplateConfig.class,
+        FullTextSearchInitializer.class, BlogSearchIndex.class, NotificationDispatcher.class,
+        NotificationClient.class, CacheConfig.class, NaturalKeyCache.class,
+        BlogCache.class, BlogJsonCache.class, JacksonAutoConfiguration.class})
+public class ResourceVersionTest {
+    private static final LocalDateTime SEEDED = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    IBlogRepository blogRepository;
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    TagService tagService;
+
+    @Autowired
+    CommentService commentService;
+
+    private User user;
+    private Tag tag;
+    private Blog blog;
+    private Comment comment;
+
+    @BeforeEach
+    public void seed() {
+        Address address = new Address(null, "123 1st Street", "Austin", "Texas", "78701", "USA", null);
+        user = new User(null, "TestUsername1", "test@email.com", "password123", null, address, new ArrayList<>());
+        entityManager.persist(user);
+        tag = new Tag(null, "travel", "Tag Description", new ArrayList<>());
+        entityManager.persist(tag);
+        for (int i = 0; i < 2; i++) {
+            Blog newBlog = new Blog(null, "Blog Title " + i, "Blog Content " + i, 0, null, null, user,
+                    new ArrayList<>(), new ArrayList<>(List.of(tag)));
+            entityManager.persist(newBlog);
+            if (blog == null) {
+                blog = newBlog;
+            }
+        }
+        comment = new Comment(null, "Text", 0, null, "TestUsername1", blog);
+        entityManager.persist(comment);
+        entityManager.flush();
+        entityManager.getEntityManager().createQuery("UPDATE Blog b SET b.lastModifiedDate = :seeded")
+                .setParameter("seeded", SEEDED).executeUpdate(); //known starting point instead of "now"
+        entityManager.clear();
+    }
+
+    //---FIND VERSION---
+    @Test
+    public void testFindVersion() {
+        assertEquals(new ResourceVersionDTO(1L, SEEDED), blogService.getBlogVersion(blog.getId()));
+        assertEquals(new ResourceVersionDTO(2L, SEEDED), userService.getBlogsVersion(user.getId()));
+        assertEquals(new ResourceVersionDTO(2L, SEEDED), tagService.getBlogsVersion(tag.getId()));
+        assertEquals(0L, blogService.getBlogVersion(10000).getCount(), "Missing blogs have no version");
+    }
+
+    //---COMMENT CHANGES---
+    @Test
+    public void testUpdateCommentChangesVersion() throws Exception {
+        commentService.updateComment(comment.getId(), new Comment(null, "Edited", 1, null, null, null));
+
+        assertTrue(blogService.getBlogVersion(blog.getId()).getLastModified().isAfter(SEEDED));
+        assertTrue(userService.getBlogsVersion(user.getId()).getLastModified().isAfter(SEEDED));
+    }
+
+    @Test
+    public void testDeleteCommentChangesVersion() throws Exception {
+        commentService.deleteComment(comment.getId());
+
+        assertTrue(blogService.getBlogVersion(blog.getId()).getLastModified().isAfter(SEEDED));
+    }
+
+    //---TAG CHANGES---
+    @Test
+    public void testUpdateTagChangesVersion() throws Exception {
+        tagService.updateTag(tag.getId(), new Tag(null, "food", "Tag Description2", null));
+
+        assertTrue(blogService.getBlogVersion(blog.getId()).getLastModified().isAfter(SEEDED));
+        assertTrue(tagService.getBlogsVersion(tag.getId()).getLastModified().isAfter(SEEDED));
+    }
+
+    @Test
+    public void testRemoveTagFromBlogChangesVersion() throws Exception {
+        blogService.removeTagFromBlog(blog.getId(), tag.getId());
+        entityManager.flush();
+
+        assertTrue(blogService.getBlogVersion(blog.getId()).getLastModified().isAfter(SEEDED));
+        assertEquals(1L, tagService.getBlogsVersion(tag.getId()).getCount(), "The blog should leave the tag's list");
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.blog.search;
+
+import com.example.blog.dto.SearchIndexStatsDTO;
+import com.example.blog.model.Blog;
+import com.example.blog.repository.IBlogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BlogSearchIndexTest {
+    private BlogSearchIndex searchIndex;
+
+    private Blog createBlog(Integer id, String title, String content) {
+        Blog blog = new Blog();
+        blog.setId(id);
+        blog.setTitle(title);
+        blog.setContent(content);
+        return blog;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        searchIndex = new BlogSearchIndex(true, 2, "the,and");
+        searchIndex.index(createBlog(3, "Trip to Japan", "Tokyo and Kyoto in spring"));
+        searchIndex.index(createBlog(1, "Baking Bread", "Sourdough bread in spring"));
+        searchIndex.index(createBlog(2, "Japan Food", "Ramen, sushi and bread"));
+    }
+
+    //---TOKENIZE---
+    @Test
+    public void testTokenize() {
+        Set<String> terms = searchIndex.tokenize("The Ramen-Bar, and a 2nd ramen!");
+        assertEquals(Set.of("ramen", "bar", "2nd"), terms, "Words should be lowercased without stop words, short words or duplicates");
+    }
+
+    //---SEARCH---
+    //HAPPY PATH
+    @Test
+    public void testSearchPass() {
+        assertArrayEquals(new int[]{1, 2}, searchIndex.search("BREAD"), "Search should not be case-sensitive and ids should be sorted");
+        assertArrayEquals(new int[]{2, 3}, searchIndex.search("japan"));
+        assertArrayEquals(new int[]{2}, searchIndex.search("japan bread"), "Every word of the query should match");
+    }
+
+    //SAD PATH - no matches
+    @Test
+    public void testSearchNoMatches() {
+        assertEquals(0, searchIndex.search("pizza").length);
+        assertEquals(0, searchIndex.search("japan pizza").length);
+        assertEquals(0, searchIndex.search("the and").length, "A query of only stop words should match nothing");
+    }
+
+    //---INCREMENTAL UPDATES---
+    @Test
+    public void testReindexAndRemove() {
+        searchIndex.index(createBlog(1, "Baking Pizza", "Neapolitan pizza"));
+        assertArrayEquals(new int[]{2}, searchIndex.search("bread"), "Old words of an updated blog should be removed");
+        assertArrayEquals(new int[]{1}, searchIndex.search("pizza"));
+
+        searchIndex.remove(1);
+        assertEquals(0, searchIndex.search("pizza").length, "Deleted blogs should not be returned");
+        assertEquals(2, searchIndex.getStats().getBlogs());
+    }
+
+    //---BUILD---
+    //HAPPY PATH
+    @Test
+    public void testBuild() {
+        BlogSearchIndex index = new BlogSearchIndex(true, 2, "");
+        index.blogRepository = mock(IBlogRepository.class);
+        when(index.blogRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                createBlog(1, "Baking Bread", "Sourdough bread"), createBlog(2, "Japan Food", "Ramen"))));
+        assertFalse(index.isReady(), "Keyword search should not use the index before it is built");
+
+        index.build();
+
+        assertTrue(index.isReady());
+        assertTrue(index.getStats().isBuilt());
+        assertArrayEquals(new int[]{1}, index.search("bread"));
+    }
+
+    //HAPPY PATH - blogs written while a page is being read are replayed on the built index, not lost or undone
+    @Test
+    public void testWritesDuringBuildReplayed() {
+        BlogSearchIndex index = new BlogSearchIndex(true, 2, "");
+        index.blogRepository = mock(IBlogRepository.class);
+        when(index.blogRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            List<Blog> page = List.of(createBlog(1, "Baking Bread", "Sourdough bread"), createBlog(2, "Japan Food", "Ramen"));
+            index.index(createBlog(1, "Baking Pizza", "Neapolitan pizza")); //updated after the page was read
+            index.remove(2); //deleted after the page was read
+            index.index(createBlog(3, "Trip to Japan", "Kyoto")); //created after the page was read
+            return new PageImpl<>(page);
+        });
+
+        index.build();
+
+        assertEquals(0, index.search("bread").length, "The update should not be undone by the page read before it");
+        assertArrayEquals(new int[]{1}, index.search("pizza"));
+        assertArrayEquals(new int[]{3}, index.search("japan"), "The deleted blog should not come back");
+        assertEquals(2, index.getStats().getBlogs());
+    }
+
+    //SAD PATH - the database can't be read, keyword search keeps using the JPQL query
+    @Test
+    public void testBuildFail() {
+        BlogSearchIndex index = new BlogSearchIndex(true, 2, "");
+        index.blogRepository = mock(IBlogRepository.class);
+        when(index.blogRepository.findAll(any(Pageable.class))).thenThrow(new DataAccessResourceFailureException("Database down"));
+
+        index.build();
+
+        assertFalse(index.isReady());
+    }
+
+    //---STATS---
+    @Test
+    public void testGetStats() {
+        SearchIndexStatsDTO stats = searchIndex.getStats();
+        assertTrue(stats.isEnabled());
+        assertEquals(3, stats.getBlogs());
+        assertEquals(13, stats.getTerms());
+        assertEquals(17, stats.getPostings());
+        assertTrue(stats.getEstimatedBytes() > 0);
+    }
+
+    //---DISABLED---
+    @Test
+    public void testDisabledIndex() {
+        BlogSearchIndex disabledIndex = new BlogSearchIndex(false, 2, "");
+        disabledIndex.index(createBlog(1, "Baking Bread", "Sourdough bread"));
+        assertEquals(0, disabledIndex.search("bread").length);
+        assertEquals(0, disabledIndex.getStats().getBlogs());
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.blog.search;
+
+import com.example.blog.model.Address;
+import com.example.blog.model.Blog;
+import com.example.blog.model.User;
+import com.example.blog.repository.IBlogRepository;
+import com.example.blog.repository.IUserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//runs against an embedded postgres (tsvector and GIN are postgres only), the other tests use h2
+//no test transaction: CREATE INDEX CONCURRENTLY can't run inside one, so rows are committed and removed after each test
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create") //no drop when the context closes, postgres is stopped by then
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(FullTextSearchInitializer.class)
+public class FullTextSearchInitializerTest {
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    IBlogRepository blogRepository;
+
+    @Autowired
+    IUserRepository userRepository;
+
+    @Autowired
+    FullTextSearchInitializer fullTextSearchInitializer;
+
+    private User user;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @AfterAll
+    public static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    public void seed() {
+        fullTextSearchInitializer.createSearchIndex(); //a test may have dropped the column
+        Address address = new Address(null, "123 1st Street", "Austin", "Texas", "78701", "USA", null);
+        user = userRepository.save(new User(null, "TestUsername1", "test@email.com", "password123", null, address, new ArrayList<>()));
+    }
+
+    @AfterEach
+    public void clean() {
+        jdbcTemplate.execute("TRUNCATE blog, user_details, address CASCADE");
+    }
+
+    private Blog saveBlog(String title, String content) {
+        return blogRepository.save(new Blog(null, title, content, 0, null, null, user, new ArrayList<>(), new ArrayList<>()));
+    }
+
+    private List<String> titles(List<Blog> blogs) {
+        return blogs.stream().map(Blog::getTitle).toList();
+    }
+
+    private int searchIndexes() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM pg_indexes WHERE indexname = 'idx_blog_search_vector'", Integer.class);
+    }
+
+    private boolean columnExists() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM information_schema.columns " +
+                "WHERE table_name = 'blog' AND column_name = 'search_vector'", Integer.class) == 1;
+    }
+
+    //---CREATE SEARCH INDEX---
+    //HAPPY PATH - created at startup (empty table), running it again (every startup) changes nothing
+    @Test
+    public void testCreateSearchIndexTwice() {
+        saveBlog("Hiking the Rockies", "Trails and camping");
+        fullTextSearchInitializer.createSearchIndex();
+        fullTextSearchInitializer.createSearchIndex();
+
+        assertTrue(columnExists());
+        assertEquals(1, searchIndexes());
+        assertTrue(fullTextSearchInitializer.isAvailable());
+    }
+
+    //HAPPY PATH - a missing index is built concurrently, also when the table has rows
+    @Test
+    public void testIndexCreatedConcurrently() {
+        saveBlog("Hiking the Rockies", "Trails and camping");
+        jdbcTemplate.execute("DROP INDEX idx_blog_search_vector");
+        fullTextSearchInitializer.createSearchIndex();
+
+        assertEquals(1, searchIndexes());
+        assertEquals(1, blogRepository.searchFullText("hiking", 10, 0).size());
+    }
+
+    //SAD PATH - the column is not added to a table with rows (table rewrite), the migration script adds it
+    @Test
+    public void testColumnNotAddedToTableWithRows() {
+        jdbcTemplate.execute("ALTER TABLE blog DROP COLUMN search_vector");
+        saveBlog("Hiking the Rockies", "Trails and camping");
+        fullTextSearchInitializer.createSearchIndex();
+
+        assertFalse(columnExists());
+        assertFalse(fullTextSearchInitializer.isAvailable(), "Keyword search should use the JPQL query");
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/full-text-search.sql")).execute(dataSource);
+        fullTextSearchInitializer.createSearchIndex();
+
+        assertTrue(columnExists());
+        assertEquals(1, searchIndexes());
+        assertTrue(fullTextSearchInitializer.isAvailable());
+        assertEquals(1, blogRepository.searchFullText("hiking", 10, 0).size(), "Existing rows get their search vector");
+    }
+
+    //---SEARCH FULL TEXT---
+    //HAPPY PATH - title matches first, then content matches, newest first when the rank is the same
+    @Test
+    public void testSearchFullTextRanksAndPages() {
+        saveBlog("Baking bread", "A hike before breakfast");
+        saveBlog("Hiking the Rockies", "Trails and camping");
+        saveBlog("Gardening", "Tomatoes and hikes");
+        saveBlog("Sourdough", "Starter notes");
+
+        assertEquals(List.of("Hiking the Rockies", "Gardening", "Baking bread"), titles(blogRepository.searchFullText("hiking", 10, 0)),
+                "Matches the stem (hike, hikes) in title and content");
+        assertEquals(List.of("Hiking the Rockies", "Gardening"), titles(blogRepository.searchFullText("hiking", 2, 0)));
+        assertEquals(List.of("Baking bread"), titles(blogRepository.searchFullText("hiking", 2, 2)));
+        assertEquals(List.of(), blogRepository.searchFullText("hiking", 2, 4));
+    }
+
+    //websearch syntax: quoted phrases and excluded words
+    @Test
+    public void testSearchFullTextWebSearchSyntax() {
+        saveBlog("Hiking the Rockies", "Trails and camping");
+        saveBlog("Hiking in the Alps", "Snow and camping");
+
+        assertEquals(List.of("Hiking in the Alps"), titles(blogRepository.searchFullText("hiking -rockies", 10, 0)));
+        assertEquals(List.of("Hiking the Rockies"), titles(blogRepository.searchFullText("\"trails and camping\"", 10, 0)));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.blog.search;
+
+import com.example.blog.model.Address;
+import com.example.blog.model.Blog;
+import com.example.blog.model.User;
+import com.example.blog.repository.IBlogRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//runs against an embedded postgres (pg_trgm is a postgres extension), the other tests use h2
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create") //no drop when the context closes, postgres is stopped by then
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TrigramIndexInitializer.class)
+public class TrigramIndexInitializerTest {
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    IBlogRepository blogRepository;
+
+    @Autowired
+    TrigramIndexInitializer trigramIndexInitializer;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @AfterAll
+    public static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    public void seed() {
+        trigramIndexInitializer.createTrigramIndexes();
+
+        Address address = new Address(null, "123 1st Street", "Austin", "Texas", "78701", "USA", null);
+        User user = new User(null, "TestUsername1", "test@email.com", "password123", null, address, new ArrayList<>());
+        entityManager.persist(user);
+        entityManager.persist(new Blog(null, "Hiking the Rockies", "Trails and camping", 0, null, null, user, new ArrayList<>(), new ArrayList<>()));
+        entityManager.persist(new Blog(null, "Baking bread", "Sourdough starter notes", 0, null, null, user, new ArrayList<>(), new ArrayList<>()));
+        entityManager.flush();
+    }
+
+    private List<String> plan(String sql) {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off"); //two rows would always be scanned, this asks if an index can be used
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+    }
+
+    //---CREATE TRIGRAM INDEXES---
+    @Test
+    public void testTrigramIndexesCreated() {
+        List<String> indexes = jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes WHERE tablename = 'blog'", String.class);
+
+        assertTrue(indexes.contains("idx_blog_title_trgm"));
+        assertTrue(indexes.contains("idx_blog_content_trgm"));
+    }
+
+    //the where clause hibernate generates for findBlogByKeywordInTitleOrContent
+    @Test
+    public void testKeywordSearchUsesTrigramIndexes() {
+        String plan = String.join("\n", plan("SELECT * FROM blog b WHERE lower(b.title) LIKE lower(('%'||'ROCK'||'%')) " +
+                "OR lower(b.content) LIKE lower(('%'||'ROCK'||'%'))"));
+
+        assertTrue(plan.contains("idx_blog_title_trgm"), plan);
+        assertTrue(plan.contains("idx_blog_content_trgm"), plan);
+    }
+
+    @Test
+    public void testKeywordSearchWithTrigramIndexes() {
+        List<Blog> blogs = blogRepository.findBlogByKeywordInTitleOrContent("ROCK");
+
+        assertEquals(1, blogs.size());
+        assertEquals("Hiking the Rockies", blogs.get(0).getTitle());
+        assertEquals(1, blogRepository.findBlogByKeywordInTitleOrContent("dough").size(), "Matches inside words of the content");
+    }
+
+    //SAD PATH - running it again (every startup) keeps the indexes and doesn't fail
+    @Test
+    public void testCreateTrigramIndexesTwice() {
+        trigramIndexInitializer.createTrigramIndexes();
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM pg_indexes WHERE indexname LIKE 'idx_blog_%_trgm'", Integer.class));
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.blog.service;
 
+import com.example.blog.cache.BlogCache;
 import com.example.blog.dto.BlogDTO;
+import com.example.blog.dto.BlogSummaryDTO;
+import com.example.blog.dto.CursorPageDTO;
 import com.example.blog.model.*;
 import com.example.blog.repository.IBlogRepository;
 import com.example.blog.repository.ICommentRepository;
 import com.example.blog.repository.ITagRepository;
 import com.example.blog.repository.IUserRepository;
+import com.example.blog.search.BlogSearchIndex;
+import com.example.blog.search.FullTextSearchInitializer;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -39,6 +46,20 @@ public class BlogServiceTest {
     @MockBean
     ICommentRepository commentRepository;
 
+    @MockBean
+    FullTextSearchInitializer fullTextSearch;
+
+    @MockBean
+    BlogSearchIndex searchIndex;
+
+    @Autowired
+    BlogCache blogCache;
+
+    @BeforeEach
+    public void clearBlogCache() {
+        blogCache.invalidateAll(); //repository mocks change between tests, the cache would keep earlier tests' blogs
+    }
+
     private Blog createBlog(Integer id, String title, String content, Integer likes) {
         Blog blog = new Blog();
 
@@ -144,16 +165,74 @@ public class BlogServiceTest {
         assertNotEquals(5,resultBlogs.size(),"The result list size should not be 5");
     }
 
+    //---GET BLOGS PAGE---
+    //HAPPY PATH
+    @Test
+    public void testGetBlogsPagePass() {
+        List<Blog> mockBlogs = Arrays.asList(mockBlog, mockBlog2); //limit + 1 rows returned, so there is a next page
+
+        when(blogRepository.findFirstPage(any(Pageable.class))).thenReturn(mockBlogs);
+        CursorPageDTO<Blog> firstPage = blogService.getBlogsPage(1, null);
+
+        assertEquals(List.of(mockBlog), firstPage.getContent(), "Only the requested number of blogs should be returned");
+        assertTrue(firstPage.isHasNext(), "There should be a next page");
+        assertNotNull(firstPage.getNextCursor(), "The next cursor should be set");
+
+        when(blogRepository.findPageAfter(eq(mockBlog.getCreationDate()), eq(mockBlog.getId()), any(Pageable.class)))
+                .thenReturn(List.of(mockBlog2));
+        CursorPageDTO<Blog> secondPage = blogService.getBlogsPage(1, firstPage.getNextCursor());
+
+        assertEquals(List.of(mockBlog2), secondPage.getContent(), "The second page should seek past the first page");
+        assertFalse(secondPage.isHasNext(), "There should not be a next page");
+        assertNull(secondPage.getNextCursor(), "The next cursor should be null on the last page");
+    }
+
+    //SAD PATH - limit out of range
+    @Test
+    public void testGetBlogsPageInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> blogService.getBlogsPage(0, null));
+        assertThrows(IllegalArgumentException.class, () -> blogService.getBlogsPage(1000, null));
+    }
+
+    //SAD PATH - cursor cannot be decoded
+    @Test
+    public void testGetBlogsPageInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> blogService.getBlogsPage(10, "not-a-cursor"));
+    }
+
+    //---GET BLOG SUMMARIES PAGE---
+    //HAPPY PATH
+    @Test
+    public void testGetBlogSummariesPagePass() {
+        BlogSummaryDTO summary = new BlogSummaryDTO(1, "Blog Title", 100, mockBlog.getCreationDate(), mockBlog.getLastModifiedDate(), 1);
+        BlogSummaryDTO summary2 = new BlogSummaryDTO(2, "Blog Title 2", 45, mockBlog2.getCreationDate(), mockBlog2.getLastModifiedDate(), 1);
+
+        when(blogRepository.findSummaryFirstPage(any(Pageable.class))).thenReturn(Arrays.asList(summary, summary2));
+        CursorPageDTO<BlogSummaryDTO> page = blogService.getBlogSummariesPage(1, null);
+
+        assertEquals(List.of(summary), page.getContent(), "Only the requested number of summaries should be returned");
+        assertTrue(page.isHasNext(), "There should be a next page");
+
+        verify(blogRepository, times(1)).findSummaryFirstPage(any(Pageable.class));
+        verify(blogRepository, never()).findAll(); //summaries never load full blog entities
+    }
+
+    //SAD PATH - limit out of range
+    @Test
+    public void testGetBlogSummariesPageInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> blogService.getBlogSummariesPage(-1, null));
+    }
+
     //---GET BLOG BY ID---
     //HAPPY PATH
     @Test
     public void testGetBlogByIdPass() throws Exception {
-        when(blogRepository.findById(1)).thenReturn(Optional.of(mockBlog));
+        when(blogRepository.findWithTagsById(1)).thenReturn(Optional.of(mockBlog));
         Blog result = blogService.getBlogById(1);
 
         assertEquals(mockBlog, result, "The result blog and mock blog should match");
 
-        verify(blogRepository, times(1)).findById(1);
+        verify(blogRepository, times(1)).findWithTagsById(1);
     }
 
     //SAD PATH
@@ -162,6 +241,30 @@ public class BlogServiceTest {
         assertThrows(Exception.class, () -> blogService.getBlogById(10000)); //id doesn't exist
     }
 
+    //HAPPY PATH - second read comes from the blog cache
+    @Test
+    public void testGetBlogByIdCached() throws Exception {
+        when(blogRepository.findWithTagsById(1)).thenReturn(Optional.of(mockBlog));
+        blogService.getBlogById(1);
+        Blog result = blogService.getBlogById(1);
+
+        assertEquals(mockBlog, result, "The cached blog and mock blog should match");
+        verify(blogRepository, times(1)).findWithTagsById(1);
+    }
+
+    //HAPPY PATH - update invalidates the cached blog
+    @Test
+    public void testUpdateBlogInvalidatesCache() throws Exception {
+        when(blogRepository.findWithTagsById(1)).thenReturn(Optional.of(mockBlog));
+        when(blogRepository.findById(1)).thenReturn(Optional.of(mockBlog));
+        when(blogRepository.save(any(Blog.class))).thenReturn(mockBlog);
+        blogService.getBlogById(1);
+        blogService.updateBlog(1, mockBlog2);
+        blogService.getBlogById(1);
+
+        verify(blogRepository, times(2)).findWithTagsById(1);
+    }
+
     //---ADD BLOG---
     //HAPPY PATH
     @Test
@@ -170,23 +273,82 @@ public class BlogServiceTest {
         mockUser.setBlogs(mockBlogs);
 
         when(userRepository.findById(1)).thenReturn(Optional.of(mockUser)); //user exists
-        when(tagRepository.findById(anyInt())).thenReturn(Optional.of(mockTag)); //tag exists
+        when(tagRepository.findAllById(List.of(1, 2))).thenReturn(List.of(mockTag, mockTag2)); //tags exist
         when(blogRepository.save(any(Blog.class))).thenReturn(mockBlog);
         Blog result = blogService.createBlog(mockBlogDTO);
 
         assertEquals(mockBlog, result, "The result blog and mock blog should match");
 
         verify(userRepository, times(1)).findById(1);
-        verify(tagRepository, times(2)).findById(anyInt()); //two mock tags, called this twice
+        verify(tagRepository, times(1)).findAllById(List.of(1, 2)); //both tags in one query
+        verify(tagRepository, never()).findById(anyInt());
         verify(blogRepository, times(1)).save(any(Blog.class));
     }
 
+    //SAD PATH - tags not found, all missing ids are named
+    @Test
+    public void testCreateBlogTagsFail() {
+        mockBlogDTO.setTagIds(Arrays.asList(1, 2, 3));
+        when(userRepository.findById(1)).thenReturn(Optional.of(mockUser));
+        when(tagRepository.findAllById(List.of(1, 2, 3))).thenReturn(List.of(mockTag));
+
+        Exception exception = assertThrows(Exception.class, () -> blogService.createBlog(mockBlogDTO));
+        assertEquals("Tags with ids [2, 3] not found", exception.getMessage());
+        verify(blogRepository, never()).save(any(Blog.class));
+    }
+
     //SAD PATH - user not found
     @Test
     public void testCreateBlogFail() throws Exception {
         assertThrows(Exception.class, () -> blogService.createBlog(mockBlogDTO)); //no user id in db, will fail
     }
 
+    //---ADD BLOGS (BULK)---
+    //HAPPY PATH
+    @Test
+    public void testCreateBlogsPass() throws Exception {
+        BlogDTO mockBlogDTO2 = createBlogDTO("Blog Title 2", "Blog Content 2", 45, 1);
+        when(userRepository.findById(1)).thenReturn(Optional.of(mockUser));
+        when(tagRepository.findAllById(List.of(1, 2))).thenReturn(List.of(mockTag, mockTag2));
+        when(blogRepository.saveAll(anyList())).thenReturn(List.of(mockBlog, mockBlog2));
+        List<Blog> result = blogService.createBlogs(List.of(mockBlogDTO, mockBlogDTO2));
+
+        assertEquals(List.of(mockBlog, mockBlog2), result);
+
+        verify(userRepository, times(1)).findById(1); //same user for both blogs, looked up once
+        verify(tagRepository, times(1)).findAllById(List.of(1, 2)); //tags of all blogs in one query
+        verify(blogRepository, times(1)).saveAll(anyList());
+        verify(blogRepository, never()).save(any(Blog.class));
+    }
+
+    //SAD PATH - empty list
+    @Test
+    public void testCreateBlogsEmptyFail() {
+        assertThrows(NullPointerException.class, () -> blogService.createBlogs(List.of()));
+        assertThrows(NullPointerException.class, () -> blogService.createBlogs(null));
+    }
+
+    //SAD PATH - user not found, nothing saved
+    @Test
+    public void testCreateBlogsUserFail() {
+        when(userRepository.findById(1)).thenReturn(Optional.of(mockUser));
+        when(userRepository.findById(2)).thenReturn(Optional.empty());
+        BlogDTO otherUserDTO = createBlogDTO("Blog Title 2", "Blog Content 2", 45, 2);
+
+        assertThrows(Exception.class, () -> blogService.createBlogs(List.of(mockBlogDTO, otherUserDTO)));
+        verify(blogRepository, never()).saveAll(anyList());
+    }
+
+    //SAD PATH - too many blogs
+    @Test
+    public void testCreateBlogsTooManyFail() {
+        List<BlogDTO> blogDTOs = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            blogDTOs.add(mockBlogDTO);
+        }
+        assertThrows(IllegalArgumentException.class, () -> blogService.createBlogs(blogDTOs));
+    }
+
     //---UPDATE BLOG---
     //HAPPY PATH
     @Test
@@ -244,7 +406,7 @@ public class BlogServiceTest {
     @Test
     public void testAddCommentToBlogPass() throws Exception {
         when(blogRepository.findById(1)).thenReturn(Optional.of(mockBlog)); //mock blog exists
-        when(userRepository.findByUsername(anyString())).thenReturn(mockUser); //mock user exists
+        when(userRepository.findIdByUsername(anyString())).thenReturn(1); //mock user exists
         when(commentRepository.save(any(Comment.class))).thenReturn(mockComment);
         when(blogRepository.save(any(Blog.class))).thenReturn(mockBlog);
 
@@ -263,7 +425,8 @@ public class BlogServiceTest {
     @Test
     public void testAddCommentToBlogUserFail() throws Exception {
         when(blogRepository.findById(1)).thenReturn(Optional.of(mockBlog)); //mock blog exists
-        assertThrows(Exception.class, () -> blogService.addCommentToBlog(1, mockComment)); //existing user not mocked
+        when(userRepository.findIdByUsername(anyString())).thenReturn(null); //no matching user found
+        assertThrows(Exception.class, () -> blogService.addCommentToBlog(1, mockComment));
     }
 
     //SAD PATH null comment
@@ -309,6 +472,80 @@ public class BlogServiceTest {
         assertThrows(IllegalArgumentException.class, () -> blogService.getBlogsByKeyword("  ")); //keyword cannot be blank
     }
 
+    //HAPPY PATH - in-memory search index enabled
+    @Test
+    public void testGetBlogsByKeywordIndexPass() throws Exception {
+        List<Blog> mockBlogs = Arrays.asList(mockBlog, mockBlog2);
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("blog")).thenReturn(new int[]{1, 2});
+        when(blogRepository.findAllById(List.of(1, 2))).thenReturn(mockBlogs);
+        List<Blog> resultBlogs = blogService.getBlogsByKeyword("blog");
+
+        assertEquals(mockBlogs, resultBlogs, "The result list and mock list should match");
+
+        verify(blogRepository, never()).findBlogByKeywordInTitleOrContent(anyString()); //index answers without the JPQL query
+    }
+
+    //SAD PATH - in-memory search index enabled, no matches
+    @Test
+    public void testGetBlogsByKeywordIndexNoMatches() throws Exception {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("No Match")).thenReturn(new int[0]);
+        List<Blog> result = blogService.getBlogsByKeyword("No Match");
+
+        assertNull(result, "The result should be null when there is no keyword match");
+        verify(blogRepository, never()).findAllById(any());
+    }
+
+    //HAPPY PATH - in-memory search index enabled but not built yet, the JPQL query answers
+    @Test
+    public void testGetBlogsByKeywordIndexNotBuiltPass() throws Exception {
+        List<Blog> mockBlogs = Arrays.asList(mockBlog, mockBlog2);
+        when(searchIndex.isEnabled()).thenReturn(true);
+        when(searchIndex.isReady()).thenReturn(false);
+        when(blogRepository.findBlogByKeywordInTitleOrContent("blog")).thenReturn(mockBlogs);
+        List<Blog> resultBlogs = blogService.getBlogsByKeyword("blog");
+
+        assertEquals(mockBlogs, resultBlogs);
+        verify(searchIndex, never()).search(anyString());
+    }
+
+    //---SEARCH BLOGS---
+    //HAPPY PATH - full-text search index available
+    @Test
+    public void testSearchBlogsFullTextPass() {
+        List<Blog> mockBlogs = Arrays.asList(mockBlog, mockBlog2);
+        when(fullTextSearch.isAvailable()).thenReturn(true);
+        when(blogRepository.searchFullText("blog", 20, 40)).thenReturn(mockBlogs);
+
+        List<Blog> resultBlogs = blogService.searchBlogs("blog", 2, 20);
+
+        assertEquals(mockBlogs, resultBlogs, "The result list and mock list should match");
+        verify(blogRepository, times(1)).searchFullText("blog", 20, 40);
+        verify(blogRepository, never()).findBlogByKeywordInTitleOrContent(anyString(), any(Pageable.class));
+    }
+
+    //HAPPY PATH - falls back to keyword query without the search index
+    @Test
+    public void testSearchBlogsFallbackPass() {
+        List<Blog> mockBlogs = Arrays.asList(mockBlog, mockBlog2);
+        when(fullTextSearch.isAvailable()).thenReturn(false);
+        when(blogRepository.findBlogByKeywordInTitleOrContent(eq("blog"), any(Pageable.class))).thenReturn(mockBlogs);
+
+        List<Blog> resultBlogs = blogService.searchBlogs("blog", 0, 20);
+
+        assertEquals(mockBlogs, resultBlogs, "The result list and mock list should match");
+        verify(blogRepository, never()).searchFullText(anyString(), anyInt(), anyLong());
+    }
+
+    //SAD PATH - blank query or invalid page
+    @Test
+    public void testSearchBlogsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> blogService.searchBlogs("  ", 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> blogService.searchBlogs("blog", -1, 20));
+        assertThrows(IllegalArgumentException.class, () -> blogService.searchBlogs("blog", 0, 0));
+    }
+
     //---ADD NEW TAG TO BLOG---
     //HAPPY PATH
     @Test
@@ -319,14 +556,14 @@ public class BlogServiceTest {
         mockBlog.setTags(mockTags);
 
         when(blogRepository.findById(anyInt())).thenReturn(Optional.of(mockBlog)); //blog exists
-        when(tagRepository.findByName(anyString())).thenReturn(null); //no matching tag name exists
+        when(tagRepository.findIdByName(anyString())).thenReturn(null); //no matching tag name exists
         when(blogRepository.save(any(Blog.class))).thenReturn(mockBlog);
         Blog result = blogService.addTagToBlog(1,mockTag);
 
         assertEquals(mockBlog, result, "The result tag and mock tag should match");
 
         verify(blogRepository, times(1)).findById(1);
-        verify(tagRepository, times(1)).findByName(anyString());
+        verify(tagRepository, times(1)).findIdByName(anyString());
     }
 
     //SAD PATH - blog not found
@@ -339,7 +576,7 @@ public class BlogServiceTest {
     @Test
     public void testAddTagToBlogTagNameExists() throws Exception {
         when(blogRepository.findById(anyInt())).thenReturn(Optional.of(mockBlog));
-        when(tagRepository.findByName(anyString())).thenReturn(mockTag2);
+        when(tagRepository.findIdByName(anyString())).thenReturn(2);
 
         assertThrows(DuplicateKeyException.class, ()-> blogService.addTagToBlog(1,mockTag));
     }
@@ -5,6 +5,7 @@ import com.example.blog.dto.NotificationDTO;
 import com.example.blog.model.Blog;
 import com.example.blog.model.Comment;
 import com.example.blog.model.User;
+import com.example.blog.notification.NotificationDispatcher;
 import com.example.blog.repository.IBlogRepository;
 import com.example.blog.repository.ICommentRepository;
 import com.example.blog.repository.IUserRepository;
@@ -42,6 +43,9 @@ public class CommentServiceTest {
     @MockBean
     RestTemplate restTemplate;
 
+    @MockBean
+    NotificationDispatcher notificationDispatcher;
+
     private Comment createComment(Integer id, String text, Integer likes, String commenterUsername){
         Comment comment = new Comment();
         comment.setId(id);
@@ -126,14 +130,14 @@ public class CommentServiceTest {
         mockBlog.setComments(mockComments); //need list of comments in blog to be able to get comments in service method
 
         when(blogRepository.findById(anyInt())).thenReturn(Optional.of(mockBlog)); //confirms blog exists for comment to be added
-        when(userRepository.findByUsername(anyString())).thenReturn(mockUser); //username must exist for comment to be created
+        when(userRepository.findIdByUsername(anyString())).thenReturn(1); //username must exist for comment to be created
         when(commentRepository.save(any(Comment.class))).thenReturn(mockComment); //mock save and return
         Comment result = commentService.createComment(mockCommentDTO);
 
         assertEquals(mockComment, result, "The result comment and mock comment should match");
 
         verify(blogRepository, times(1)).findById(anyInt());
-        verify(userRepository, times(1)).findByUsername(anyString());
+        verify(userRepository, times(1)).findIdByUsername(anyString());
         verify(commentRepository, times(1)).save(any(Comment.class));
     }
 
@@ -155,11 +159,52 @@ public class CommentServiceTest {
     @Test
     public void testCreateCommentUsernameFail() throws Exception {
         when(blogRepository.findById(anyInt())).thenReturn(Optional.of(mockBlog)); //confirms blog exists to get to username check
-        when(userRepository.findByUsername(anyString())).thenReturn(null); //no matching user found
+        when(userRepository.findIdByUsername(anyString())).thenReturn(null); //no matching user found
 
         assertThrows(Exception.class, () -> commentService.createComment(mockCommentDTO));
     }
 
+    //---ADD COMMENTS (BULK)---
+    //HAPPY PATH
+    @Test
+    public void testCreateCommentsPass() throws Exception {
+        mockBlog.setId(1);
+        mockBlog.setUser(mockUser);
+        mockComment.setBlog(mockBlog);
+        mockComment2.setBlog(mockBlog);
+        CommentDTO mockCommentDTO2 = createCommentDTO("Text2", 50, "User123", 1);
+
+        when(blogRepository.findById(1)).thenReturn(Optional.of(mockBlog));
+        when(userRepository.findIdByUsername("User123")).thenReturn(1);
+        when(commentRepository.saveAll(anyList())).thenReturn(List.of(mockComment, mockComment2));
+        List<Comment> result = commentService.createComments(List.of(mockCommentDTO, mockCommentDTO2));
+
+        assertEquals(List.of(mockComment, mockComment2), result);
+        assertNotNull(mockBlog.getLastModifiedDate(), "Comments are part of the blog's etag");
+
+        verify(blogRepository, times(1)).findById(1); //same blog and commenter, looked up once
+        verify(userRepository, times(1)).findIdByUsername("User123");
+        verify(commentRepository, never()).save(any(Comment.class));
+        verify(notificationDispatcher, times(2)).enqueue(any(NotificationDTO.class));
+    }
+
+    //SAD PATH - empty list
+    @Test
+    public void testCreateCommentsEmptyFail() {
+        assertThrows(NullPointerException.class, () -> commentService.createComments(List.of()));
+    }
+
+    //SAD PATH - username doesn't exist, nothing saved
+    @Test
+    public void testCreateCommentsUsernameFail() {
+        when(blogRepository.findById(1)).thenReturn(Optional.of(mockBlog));
+        when(userRepository.findIdByUsername(anyString())).thenReturn(null);
+
+        assertThrows(Exception.class, () -> commentService.createComments(List.of(mockCommentDTO)));
+        verify(commentRepository, never()).saveAll(anyList());
+        verify(notificationDispatcher, never()).enqueue(any(NotificationDTO.class));
+    }
+
 
     //---UPDATE COMMENT---
     //HAPPY PATH
@@ -207,6 +252,19 @@ public class CommentServiceTest {
     }
 
     //---CREATE NOTIFICATION---
+    //HAPPY PATH - notification is saved to the outbox, not sent during the request
+    @Test
+    public void testCreateNotificationPass() throws Exception {
+        User blogger = new User();
+        blogger.setId(2);
+        mockBlog.setId(1);
+        mockBlog.setUser(blogger);
+        commentService.createNotification(mockComment, mockBlog);
+
+        verify(notificationDispatcher, times(1)).enqueue(new NotificationDTO("User123", 2, 1, 1));
+        verifyNoInteractions(restTemplate);
+    }
+
     //SAD PATH - happy already mostly tested with other methods
     @Test
     public void testCreateNotificationFail() throws Exception {
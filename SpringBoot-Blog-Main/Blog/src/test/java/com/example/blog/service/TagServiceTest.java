@@ -1,20 +1,26 @@
 package com.example.blog.service;
 
+import com.example.blog.cache.BlogCache;
+import com.example.blog.dto.TagBulkResultDTO;
 import com.example.blog.dto.TagDTO;
 import com.example.blog.model.Blog;
 import com.example.blog.model.Tag;
 import com.example.blog.repository.IBlogRepository;
 import com.example.blog.repository.ITagRepository;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +36,9 @@ public class TagServiceTest {
     @MockBean
     IBlogRepository blogRepository;
 
+    @SpyBean
+    BlogCache blogCache;
+
     private List<Tag> createMockTags(Integer id, String name, String description){
         List<Tag> tags = new ArrayList<>();
         List<Blog> blogs = new ArrayList<>();
@@ -126,20 +135,51 @@ public class TagServiceTest {
     //HAPPY PATH
     @Test
     public void testAddTagsPass() throws Exception {
-        Blog mockBlog = new Blog();
-        List<Tag> mockTags = new ArrayList<>();
-        mockBlog.setTags(mockTags);
-        when(tagRepository.findByName(anyString())).thenReturn(null); //no duplicates
+        List<Blog> mockBlogs = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) { //blog ids 1-4 used by the mock tag DTOs
+            Blog mockBlog = new Blog();
+            mockBlog.setId(i);
+            mockBlog.setTags(new ArrayList<>());
+            mockBlogs.add(mockBlog);
+        }
+        when(tagRepository.findByNameIn(anyCollection())).thenReturn(List.of()); //no duplicates
         when(tagRepository.saveAll(anyList())).thenReturn(mockTagsList);
-        when(blogRepository.findById(anyInt())).thenReturn(Optional.of(mockBlog));
+        when(blogRepository.findAllById(List.of(1, 2, 3, 4))).thenReturn(mockBlogs);
         List<Tag> resultTagsList = tagService.addTags(mockTagDTOList);
 
         assertEquals(mockTagsList, resultTagsList, "The result list should match the mock list");
 
-        verify(tagRepository, times(4)).findByName(anyString()); //4 tags in mock that call this
+        verify(tagRepository, times(1)).findByNameIn(List.of("tag0", "tag1", "tag2", "tag3")); //names of all tags in one query
+        verify(tagRepository, never()).findIdByName(anyString());
+        verify(blogRepository, times(1)).findAllById(List.of(1, 2, 3, 4)); //blogs of all tags in one query
+        verify(blogRepository, never()).findById(anyInt());
         verify(tagRepository, times(1)).saveAll(anyCollection());
     }
 
+    //HAPPY PATH - tagged blogs are dropped from the cache after the tags are saved, in the save's transaction
+    @Test
+    public void testAddTagsInvalidatesBlogsAfterSave() throws Exception {
+        Blog mockBlog = new Blog();
+        mockBlog.setId(1);
+        mockBlog.setTags(new ArrayList<>());
+        TagDTO tagDTO = new TagDTO();
+        tagDTO.setName("tag");
+        tagDTO.setBlogIds(new ArrayList<>(List.of(1)));
+        AtomicBoolean savedInTransaction = new AtomicBoolean();
+        when(tagRepository.findByNameIn(anyCollection())).thenReturn(List.of());
+        when(blogRepository.findAllById(List.of(1))).thenReturn(List.of(mockBlog));
+        when(tagRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            savedInTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.getArgument(0);
+        });
+        tagService.addTags(List.of(tagDTO));
+
+        assertTrue(savedInTransaction.get(), "The invalidation should be repeated after the commit");
+        InOrder inOrder = inOrder(tagRepository, blogCache);
+        inOrder.verify(tagRepository).saveAll(anyList());
+        inOrder.verify(blogCache).invalidate(1);
+    }
+
     //SAD PATH - null tagDTO body
     @Test
     public void testAddTagsNullDTO() {
@@ -149,27 +189,93 @@ public class TagServiceTest {
     //SAD PATH - matching tag found(cannot create duplicates)
     @Test
     public void testAddTagsFail() {
-        when(tagRepository.findByName(anyString())).thenReturn(mockTag); //duplicate tag found should throw error
-        assertThrows(DuplicateKeyException.class, ()-> tagService.addTags(mockTagDTOList));
+        when(tagRepository.findByNameIn(anyCollection())).thenReturn(List.of(mockTag)); //duplicate tag found should throw error
+        Exception exception = assertThrows(DuplicateKeyException.class, ()-> tagService.addTags(mockTagDTOList));
+        assertEquals("Tag with name test already exists", exception.getMessage());
+        verify(tagRepository, never()).saveAll(anyCollection());
+    }
+
+    //SAD PATH - several matching tags found, all of them are reported
+    @Test
+    public void testAddTagsSeveralExist() {
+        when(tagRepository.findByNameIn(anyCollection())).thenReturn(List.of(mockTag2, mockTag));
+        Exception exception = assertThrows(DuplicateKeyException.class, ()-> tagService.addTags(mockTagDTOList));
+        assertEquals("Tags with names [test, test2] already exist", exception.getMessage());
+    }
+
+    //SAD PATH - the same name twice in one request
+    @Test
+    public void testAddTagsRepeatedName() {
+        List<TagDTO> tagDTOs = List.of(new TagDTO("Food", "Description", null), new TagDTO("food", "Description", null));
+        assertThrows(DuplicateKeyException.class, ()-> tagService.addTags(tagDTOs));
+        verify(tagRepository, never()).findByNameIn(anyCollection());
     }
 
     //SAD PATH - blog not found when adding tags with blog id list
     @Test
     public void testCreateTagBlogNotFound() throws Exception {
-        when(tagRepository.findByName(anyString())).thenReturn(null); //no duplicates
-        when(blogRepository.findById(anyInt())).thenReturn(null); //blog doesn't exist
+        when(tagRepository.findByNameIn(anyCollection())).thenReturn(List.of()); //no duplicates
+        when(blogRepository.findAllById(anyList())).thenReturn(List.of()); //blogs don't exist
 
-        assertThrows(Exception.class, ()-> tagService.addTags(mockTagDTOList));
-        verify(blogRepository, times(1)).findById(anyInt());
+        Exception exception = assertThrows(Exception.class, ()-> tagService.addTags(mockTagDTOList));
+        assertEquals("Blogs with ids [1, 2, 3, 4] not found", exception.getMessage());
+        verify(blogRepository, times(1)).findAllById(anyList());
     }
 
 
 
+    //---ADD TAGS IF ABSENT (BULK)---
+    //HAPPY PATH
+    @Test
+    public void testAddTagsIfAbsentPass() throws Exception {
+        List<TagDTO> tagDTOs = List.of(new TagDTO("Test", "Description", null), new TagDTO("new", "Description", null),
+                new TagDTO("NEW", "Other description", null));
+        when(tagRepository.findByNameIn(anyCollection())).thenReturn(List.of(mockTag)); //"test" exists
+        when(tagRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        TagBulkResultDTO result = tagService.addTagsIfAbsent(tagDTOs);
+
+        assertEquals(List.of("test"), result.getExisting());
+        assertEquals(1, result.getCreated().size(), "A repeated name is added once");
+        assertEquals("new", result.getCreated().get(0).getName());
+        assertEquals("Description", result.getCreated().get(0).getDescription(), "The first of a repeated name wins");
+        verify(tagRepository, times(1)).findByNameIn(List.of("test", "new"));
+        verify(tagRepository, times(1)).saveAll(anyCollection());
+    }
+
+    @Test
+    public void testAddTagsIfAbsentAllExist() throws Exception {
+        when(tagRepository.findByNameIn(anyCollection())).thenReturn(List.of(mockTag));
+        TagBulkResultDTO result = tagService.addTagsIfAbsent(List.of(new TagDTO("test", "Description", null)));
+
+        assertTrue(result.getCreated().isEmpty());
+        assertEquals(List.of("test"), result.getExisting());
+        verify(tagRepository, never()).saveAll(anyCollection());
+    }
+
+    //SAD PATH - empty list
+    @Test
+    public void testAddTagsIfAbsentEmptyFail() {
+        assertThrows(NullPointerException.class, ()-> tagService.addTagsIfAbsent(List.of()));
+        assertThrows(NullPointerException.class, ()-> tagService.addTagsIfAbsent(null));
+    }
+
+    //SAD PATH - too many tags at once
+    @Test
+    public void testAddTagsIfAbsentTooManyFail() {
+        List<TagDTO> tagDTOs = new ArrayList<>();
+        for (int i = 0; i <= 5000; i++) {
+            tagDTOs.add(new TagDTO("tag" + i, "Description", null));
+        }
+        assertThrows(IllegalArgumentException.class, ()-> tagService.addTagsIfAbsent(tagDTOs));
+        verify(tagRepository, never()).findByNameIn(anyCollection());
+    }
+
     //---UPDATE TAG---
     //HAPPY PATH
     @Test
     public void testUpdateTagPass() throws Exception {
         when(tagRepository.findById(1)).thenReturn(Optional.of(mockTag));
+        when(tagRepository.findIdByName(anyString())).thenReturn(null); //no matching tag name exists
         when(tagRepository.save(any())).thenReturn(mockTag2);
         Tag updatedTag = tagService.updateTag(1, mockTag2);
         assertEquals(mockTag2, updatedTag, "The result tag and mock tag should match");
@@ -195,7 +301,7 @@ public class TagServiceTest {
     @Test
     public void testUpdateTagNameExists() throws Exception {
         when(tagRepository.findById(1)).thenReturn(Optional.of(mockTag));
-        when(tagRepository.findByName(anyString())).thenReturn(mockTag2); //matching tag name exists
+        when(tagRepository.findIdByName(anyString())).thenReturn(2); //matching tag name exists
 
         assertThrows(DuplicateKeyException.class, () -> tagService.updateTag(1, mockTag2));
     }
@@ -223,12 +329,13 @@ public class TagServiceTest {
     //HAPPY PATH
     @Test
     public void testGetTagByNamePass() throws Exception {
-        when(tagRepository.findByName(anyString())).thenReturn(mockTag2);
+        when(tagRepository.findIdByName(anyString())).thenReturn(2);
+        when(tagRepository.findById(2)).thenReturn(Optional.of(mockTag2));
         Tag result = tagService.getTagByName("test");
 
         assertEquals(mockTag2, result, "The result tag and mock tag should match");
 
-        verify(tagRepository, times(1)).findByName(anyString());
+        verify(tagRepository, times(1)).findIdByName(anyString());
     }
 
     //SAD PATH - tag name is blank
@@ -244,18 +351,18 @@ public class TagServiceTest {
     public void testGetBlogsByTagPass() throws Exception {
         List<Blog> mockBlogs = new ArrayList<>();
         mockTag.setBlogs(mockBlogs);
-        when(tagRepository.findById(1)).thenReturn(Optional.of(mockTag));
+        when(tagRepository.findWithBlogsById(1)).thenReturn(Optional.of(mockTag));
 
         List<Blog> resultList = tagService.getBlogsByTag(1);
         assertEquals(mockBlogs, resultList, "The result list and mock list should match");
 
-        verify(tagRepository, times(1)).findById(1);
+        verify(tagRepository, times(1)).findWithBlogsById(1);
     }
 
     //SAD PATH
     @Test
     public void testGetBlogsByTagFail() throws Exception {
-        when(tagRepository.findById(1)).thenReturn(null);
+        when(tagRepository.findWithBlogsById(1)).thenReturn(Optional.empty());
         assertThrows(Exception.class, ()-> tagService.getBlogsByTag(1));
     }
 
@@ -266,7 +373,7 @@ public class TagServiceTest {
     public void testMapToTags() throws Exception {
         List<Integer> blogIds = Arrays.asList(100001, 100002); //mock IDs do not exist
         mockTagDTOList.getFirst().setBlogIds(blogIds);
-        when(blogRepository.findById(anyInt())).thenReturn(null); //no blog match found
+        when(blogRepository.findAllById(anyList())).thenReturn(List.of()); //no blog match found
 
         assertThrows(Exception.class, ()-> tagService.mapToTags(mockTagDTOList));
     }
@@ -13,6 +13,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDate;
@@ -106,6 +107,7 @@ public class UserServiceTest {
     //HAPPY PATH
     @Test
     public void testCreateUserPass() throws Exception {
+        when(userRepository.findIdByUsername(anyString())).thenReturn(null); //username not taken
         when(userRepository.save(any(User.class))).thenReturn(mockUser);
         User result = userService.createUser(mockUser);
 
@@ -123,7 +125,7 @@ public class UserServiceTest {
     //SAD PATH - username exists
     @Test
     public void testCreateUserUsernameExist() throws Exception {
-        when(userRepository.findByUsername(anyString())).thenReturn(mockUser);
+        when(userRepository.findIdByUsername(anyString())).thenReturn(1);
 
         assertThrows(DuplicateKeyException.class, () -> userService.createUser(mockUser2));
     }
@@ -134,6 +136,7 @@ public class UserServiceTest {
     @Test
     public void testUpdateUserPass() throws Exception {
         when(userRepository.findById(1)).thenReturn(Optional.of(mockUser));
+        when(userRepository.findIdByUsername(anyString())).thenReturn(null); //username not taken
         when(userRepository.save(any(User.class))).thenReturn(mockUser2);
         User updatedUser = userService.updateUser(1, mockUser2);
 
@@ -160,7 +163,7 @@ public class UserServiceTest {
     @Test
     public void testUpdateUserUsernameExists() throws Exception {
         when(userRepository.findById(1)).thenReturn(Optional.of(mockUser));
-        when(userRepository.findByUsername(anyString())).thenReturn(mockUser2);
+        when(userRepository.findIdByUsername(anyString())).thenReturn(2);
 
         assertThrows(DuplicateKeyException.class, () -> userService.updateUser(1, mockUser));
     }
@@ -237,11 +240,11 @@ public class UserServiceTest {
     public void testGetBlogsByUserPass() throws Exception {
         List<Blog> mockBlogList = new ArrayList<>();
         mockUser.setBlogs(mockBlogList);
-        when(userRepository.findById(1)).thenReturn(Optional.of(mockUser));
+        when(userRepository.findWithBlogsById(1)).thenReturn(Optional.of(mockUser));
         List<Blog> resultBlogs = userService.getBlogsByUserId(1);
 
         assertEquals(mockBlogList, resultBlogs, "The result blogs and mock blogs list should match");
-        verify(userRepository, times(1)).findById(1);
+        verify(userRepository, times(1)).findWithBlogsById(1);
     }
 
     //SAD PATH
@@ -285,6 +288,18 @@ public class UserServiceTest {
         assertThrows(Exception.class, () -> userService.getNotificationsByUserId(1));
     }
 
+    //SAD PATH - notification service down, degraded response
+    @Test
+    public void testGetNotificationsServiceDown() throws Exception {
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(mockUser));
+        when(restTemplate.getForEntity("http://localhost:8081/notifications/users/{id}",
+                NotificationDTO[].class,
+                mockUser.getId())).thenThrow(new ResourceAccessException("Connection refused"));
+        List<NotificationDTO> resultList = userService.getNotificationsByUserId(1);
+
+        assertTrue(resultList.isEmpty(), "No notifications should be returned when the service is down");
+    }
+
     //SAD PATH - user id doesn't exist
     @Test
     public void testGetNotificationsUserFail() throws Exception {
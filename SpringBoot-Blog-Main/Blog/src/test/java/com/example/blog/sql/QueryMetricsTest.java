@@ -0,0 +1,87 @@
+package com.example.blog.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//every statement counts as slow here (slow-query-ms=0), so the slow query log can be checked too
+@SpringBootTest(properties = {"blog.notifications.relay.enabled=false", "blog.sql.slow-query-ms=0"})
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+public class QueryMetricsTest {
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    DataSource dataSource;
+
+    private DistributionSummary queries(String handler) {
+        return meterRegistry.find("blog.db.queries").tag("handler", handler).summary();
+    }
+
+    //---PER REQUEST METRICS---
+    //HAPPY PATH
+    @Test
+    public void testQueriesCountedPerHandler() throws Exception {
+        DistributionSummary before = queries("TagController.getTagById");
+        long countBefore = before == null ? 0 : before.count();
+        double totalBefore = before == null ? 0 : before.totalAmount();
+
+        mockMvc.perform(get("/tags/{id}", 10000)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/tags/{id}", 10001)).andExpect(status().isNotFound());
+
+        DistributionSummary after = queries("TagController.getTagById");
+        assertNotNull(after, "Statements should be published per controller method");
+        assertEquals(2, after.count() - countBefore, "One sample per request");
+        assertTrue(after.totalAmount() - totalBefore >= 2, "Each lookup runs at least one statement");
+        Timer time = meterRegistry.find("blog.db.time").tag("handler", "TagController.getTagById").timer();
+        assertNotNull(time);
+        assertTrue(time.totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertTrue(meterRegistry.find("blog.db.slow.queries").tag("handler", "TagController.getTagById")
+                .counter().count() >= 2);
+    }
+
+    @Test
+    public void testDataSourceProxied() {
+        assertInstanceOf(ProxyDataSource.class, dataSource);
+    }
+
+    //---SLOW QUERY LOG---
+    //bind parameters must not show up in the log
+    @Test
+    public void testSlowQueryLoggedWithoutParameters(CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/tags").param("name", "SecretTagName42")).andExpect(status().isOk());
+
+        assertTrue(output.getOut().contains("Slow query"), "Every statement is slow with slow-query-ms=0");
+        assertTrue(output.getOut().contains("TagController.getTagsByName"), "The log names the controller method");
+        assertFalse(output.getOut().toLowerCase().contains("secrettagname42"), "Bind parameters are redacted");
+    }
+
+    @Test
+    public void testRedactLiterals() {
+        QueryInfo queryInfo = new QueryInfo("select * from tag where name = 'it''s secret' and id = ?");
+
+        assertEquals("select * from tag where name = '?' and id = ?", QueryMetricsListener.redact(List.of(queryInfo)));
+    }
+}
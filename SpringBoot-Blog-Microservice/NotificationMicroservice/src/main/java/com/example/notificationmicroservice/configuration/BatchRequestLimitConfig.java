@@ -0,0 +1,20 @@
+package com.example.notificationmicroservice.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BatchRequestLimitConfig {
+    @Value("${notification.batch.max-bytes:5242880}") //5 MB, about 50000 notifications
+    private long maxBytes;
+
+    //only the bulk endpoint, single notifications are small
+    @Bean
+    public FilterRegistrationBean<BatchRequestLimitFilter> batchRequestLimitFilter() {
+        FilterRegistrationBean<BatchRequestLimitFilter> registration = new FilterRegistrationBean<>(new BatchRequestLimitFilter(maxBytes));
+        registration.addUrlPatterns("/notifications/batch");
+        return registration;
+    }
+}
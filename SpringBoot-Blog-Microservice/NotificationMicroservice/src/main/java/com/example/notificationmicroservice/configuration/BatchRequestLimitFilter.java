@@ -0,0 +1,98 @@
+package com.example.notificationmicroservice.configuration;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+//limits the size of a bulk notification request (both bodies are held in memory until they are saved)
+//a request announcing a larger body is rejected with 413 before it is read, a body sent without a length (chunked)
+//fails once it passes the limit, which the endpoint reports as a bad request
+public class BatchRequestLimitFilter extends OncePerRequestFilter {
+    private final long maxBytes;
+
+    public BatchRequestLimitFilter(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (request.getContentLengthLong() > maxBytes) {
+            response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            response.setContentType("text/plain");
+            response.getWriter().write("Request body cannot be larger than " + maxBytes + " bytes");
+            return;
+        }
+        filterChain.doFilter(new HttpServletRequestWrapper(request) {
+            private ServletInputStream inputStream;
+
+            @Override
+            public ServletInputStream getInputStream() throws IOException {
+                if (inputStream == null) {
+                    inputStream = new LimitedInputStream(super.getInputStream(), maxBytes);
+                }
+                return inputStream;
+            }
+        }, response);
+    }
+
+    //throws once more than maxBytes have been read
+    static class LimitedInputStream extends ServletInputStream {
+        private final ServletInputStream inputStream;
+        private final long maxBytes;
+        private long read;
+
+        LimitedInputStream(ServletInputStream inputStream, long maxBytes) {
+            this.inputStream = inputStream;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = inputStream.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = inputStream.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            read += n;
+            if (read > maxBytes) {
+                throw new IOException("Request body cannot be larger than " + maxBytes + " bytes");
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return inputStream.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return inputStream.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            inputStream.setReadListener(readListener);
+        }
+    }
+}
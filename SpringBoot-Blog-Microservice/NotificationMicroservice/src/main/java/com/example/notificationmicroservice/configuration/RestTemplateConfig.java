@@ -1,14 +1,77 @@
 package com.example.notificationmicroservice.configuration;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestTemplateConfig {
+    @Value("${notification.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${notification.http.max-connections-per-route:20}") //route = host + port
+    private int maxConnectionsPerRoute;
+
+    @Value("${notification.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${notification.http.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
+    @Value("${notification.http.pool-timeout-ms:1000}") //max wait for a free connection when the pool is exhausted
+    private long poolTimeoutMs;
+
+    @Value("${notification.http.idle-eviction-seconds:30}")
+    private long idleEvictionSeconds;
+
+    @Value("${notification.http.time-to-live-seconds:300}")
+    private long timeToLiveSeconds;
+
+    //keeps connections open between calls (keep-alive) instead of opening a new connection per request
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofSeconds(timeToLiveSeconds))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2)) //check connections the server may have closed
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds)) //background thread closes unused connections
+                .build();
+    }
+
+    //built with spring boot's builder so every call is timed (http.client.requests metric)
     @Bean //tells springboot to create a bean of the return for this method
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, CloseableHttpClient httpClient) {
+        return restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
     }
 
     //the rest template return bean can now be autowired and used
@@ -1,13 +1,16 @@
 package com.example.notificationmicroservice.controller;
 
+import com.example.notificationmicroservice.dto.BatchResultDTO;
 import com.example.notificationmicroservice.dto.NotificationDTO;
 import com.example.notificationmicroservice.model.Notification;
 import com.example.notificationmicroservice.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -27,6 +30,26 @@ public class NotificationController {
         }
     }
 
+    //save notifications in bulk - json array body
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createNotifications(@RequestBody List<NotificationDTO> notificationDTOs) {
+        try {
+            return new ResponseEntity<>(notificationService.createNotifications(notificationDTOs), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage()); //throw exception if any notification is missing anything
+        }
+    }
+
+    //save notifications in bulk - newline delimited json body (one notification per line), read as a stream
+    @PostMapping(value = "/batch", consumes = "application/x-ndjson")
+    public ResponseEntity<?> createNotificationsFromStream(InputStream body) {
+        try {
+            return new ResponseEntity<>(notificationService.createNotifications(body), HttpStatus.CREATED);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage()); //throw exception if any line is invalid
+        }
+    }
+
     //GET
     //get all notifications
     @GetMapping
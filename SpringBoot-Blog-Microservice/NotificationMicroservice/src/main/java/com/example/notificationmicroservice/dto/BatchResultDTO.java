@@ -0,0 +1,13 @@
+package com.example.notificationmicroservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDTO {
+    private Integer received; //notifications in the request
+    private Integer created; //notifications saved
+}
@@ -16,6 +16,7 @@ public class Notification {
     private Integer id;
     private String commenterUsername;
     private Integer bloggerId; //aka userId of poster
+    @Column(unique = true) //one notification per comment - the main application may send a comment's notification more than once
     private Integer commentId;
     private Integer blogId;
 }
@@ -2,11 +2,21 @@ package com.example.notificationmicroservice.repository;
 
 import com.example.notificationmicroservice.model.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface INotificationRepository extends JpaRepository<Notification, Integer> {
     List<Notification> findAllByBloggerId(Integer bloggerId);
+
+    Notification findByCommentId(Integer commentId);
+
+    //comment ids from the list that already have a notification
+    @Query("SELECT n.commentId FROM Notification n WHERE n.commentId IN :commentIds")
+    Set<Integer> findExistingCommentIds(@Param("commentIds") Collection<Integer> commentIds);
 }
@@ -1,31 +1,150 @@
 package com.example.notificationmicroservice.service;
 
+import com.example.notificationmicroservice.dto.BatchResultDTO;
 import com.example.notificationmicroservice.dto.NotificationDTO;
 import com.example.notificationmicroservice.model.Notification;
 import com.example.notificationmicroservice.repository.INotificationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class NotificationService {
+    private static final int INSERT_BATCH_SIZE = 500; //rows per insert statement (2000 parameters)
+
     @Autowired
     INotificationRepository notificationRepository;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
     //create notification
     public Notification createNotification(NotificationDTO notificationDTO) {
         if(notificationDTO.getBloggerId() == null || notificationDTO.getCommenterUsername() == null
                 || notificationDTO.getCommentId() == null || notificationDTO.getBlogId() == null) {
             throw new IllegalArgumentException("Notification DTO must contain blogger id,commenter username, comment id and blog id");
         }
+        Notification existingNotification = notificationRepository.findByCommentId(notificationDTO.getCommentId());
+        if (existingNotification != null) { //already received (notifications are resent until acknowledged)
+            return existingNotification;
+        }
         Notification notification = new Notification();
         notification.setCommenterUsername(notificationDTO.getCommenterUsername());
         notification.setBloggerId(notificationDTO.getBloggerId());
         notification.setCommentId(notificationDTO.getCommentId());
         notification.setBlogId(notificationDTO.getBlogId());
 
-        return notificationRepository.save(notification);
+        try {
+            return notificationRepository.save(notification);
+        } catch (DataIntegrityViolationException e) {
+            //another delivery of the same comment saved it since the check above (unique comment id), return that one
+            Notification savedNotification = notificationRepository.findByCommentId(notificationDTO.getCommentId());
+            if (savedNotification == null) { //some other constraint
+                throw e;
+            }
+            return savedNotification;
+        }
+    }
+
+    //create notifications in bulk
+    //one multi-row insert per 500 rows (ids come from the same sequence as the entity) instead of one insert per notification
+    //comment ids that already have a notification are skipped, so a resent batch doesn't create duplicates
+    //created counts the rows actually inserted (from the update counts), not the rows sent
+    @Transactional //all notifications are saved or none are
+    public BatchResultDTO createNotifications(List<NotificationDTO> notificationDTOs) {
+        if (notificationDTOs == null || notificationDTOs.isEmpty()) {
+            throw new IllegalArgumentException("Notification batch cannot be empty");
+        }
+        List<Integer> invalidIndexes = new ArrayList<>(); //validate everything first so the error lists every bad entry
+        for (int i = 0; i < notificationDTOs.size(); i++) {
+            NotificationDTO notificationDTO = notificationDTOs.get(i);
+            if (notificationDTO == null || notificationDTO.getBloggerId() == null || notificationDTO.getCommenterUsername() == null
+                    || notificationDTO.getCommentId() == null || notificationDTO.getBlogId() == null) {
+                invalidIndexes.add(i);
+            }
+        }
+        if (!invalidIndexes.isEmpty()) {
+            throw new IllegalArgumentException("Notification DTOs at index " + invalidIndexes +
+                    " must contain blogger id,commenter username, comment id and blog id");
+        }
+
+        Set<Integer> existingCommentIds = notificationRepository.findExistingCommentIds(
+                notificationDTOs.stream().map(NotificationDTO::getCommentId).toList());
+        Map<Integer, NotificationDTO> newNotifications = new LinkedHashMap<>(); //also drops repeats within the batch
+        for (NotificationDTO notificationDTO : notificationDTOs) {
+            if (!existingCommentIds.contains(notificationDTO.getCommentId())) {
+                newNotifications.putIfAbsent(notificationDTO.getCommentId(), notificationDTO);
+            }
+        }
+
+        List<NotificationDTO> rows = new ArrayList<>(newNotifications.values());
+        int created = 0;
+        for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+            created += insertNotifications(rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size())));
+        }
+        return new BatchResultDTO(notificationDTOs.size(), created);
+    }
+
+    //ON CONFLICT covers a notification for the same comment saved by another request since the existing ids were read,
+    //such rows are not counted
+    //a multi-row insert instead of a jdbc batch: its update count is the number of rows inserted, the counts of a batch
+    //rewritten by the postgres driver (reWriteBatchedInserts) are unknown (SUCCESS_NO_INFO)
+    private int insertNotifications(List<NotificationDTO> notificationDTOs) {
+        String sql = "INSERT INTO notification (id, commenter_username, blogger_id, comment_id, blog_id) VALUES " +
+                String.join(", ", Collections.nCopies(notificationDTOs.size(), "(nextval('seq_notif'), ?, ?, ?, ?)")) +
+                " ON CONFLICT DO NOTHING";
+        List<Object> args = new ArrayList<>(notificationDTOs.size() * 4);
+        for (NotificationDTO notificationDTO : notificationDTOs) {
+            args.add(notificationDTO.getCommenterUsername());
+            args.add(notificationDTO.getBloggerId());
+            args.add(notificationDTO.getCommentId());
+            args.add(notificationDTO.getBlogId());
+        }
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+
+    //create notifications from newline delimited json (one NotificationDTO per line), read line by line from the request
+    //the lines are read before the transaction starts (no connection held while the client sends), the insert runs in a
+    //transaction template because calling the @Transactional method on this bypasses the proxy
+    public BatchResultDTO createNotifications(InputStream ndjson) throws IOException {
+        List<NotificationDTO> notificationDTOs = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                notificationDTOs.add(objectMapper.readValue(line, NotificationDTO.class));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + " is not a valid notification");
+            }
+        }
+        return transactionTemplate.execute(status -> createNotifications(notificationDTOs));
     }
 
     //get all notifications
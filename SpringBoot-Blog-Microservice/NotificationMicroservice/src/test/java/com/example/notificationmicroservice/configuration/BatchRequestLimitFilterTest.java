@@ -0,0 +1,57 @@
+package com.example.notificationmicroservice.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRequestLimitFilterTest {
+    private final BatchRequestLimitFilter filter = new BatchRequestLimitFilter(10);
+
+    //---LIMIT REQUEST BODY---
+    //HAPPY PATH
+    @Test
+    public void testSmallBodyPassed() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/notifications/batch");
+        request.setContent("[{}]".getBytes());
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertEquals(4, chain.getRequest().getInputStream().readAllBytes().length);
+    }
+
+    //SAD PATH - a larger declared length is rejected before the body is read
+    @Test
+    public void testLargeBodyRejected() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/notifications/batch");
+        request.setContent(new byte[11]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest(), "The endpoint should not be called");
+    }
+
+    //SAD PATH - a body without a length fails once it is larger than the limit
+    @Test
+    public void testLargeChunkedBodyFails() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/notifications/batch") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContent(new byte[11]);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        InputStream body = chain.getRequest().getInputStream();
+        assertThrows(IOException.class, body::readAllBytes);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.notificationmicroservice.service;
+
+import com.example.notificationmicroservice.dto.BatchResultDTO;
+import com.example.notificationmicroservice.dto.NotificationDTO;
+import com.example.notificationmicroservice.model.Notification;
+import com.example.notificationmicroservice.repository.INotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+//bulk inserts against an in-memory database in postgres mode (nextval, ON CONFLICT), each call commits on its own
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:notifications;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"})
+public class NotificationServiceTest {
+    @Autowired
+    NotificationService notificationService;
+
+    @SpyBean
+    INotificationRepository notificationRepository;
+
+    @BeforeEach
+    public void clear() {
+        notificationRepository.deleteAll();
+    }
+
+    private static NotificationDTO notificationDTO(int commentId) {
+        return new NotificationDTO("commenter" + commentId, 1, commentId, 10);
+    }
+
+    private static List<NotificationDTO> notificationDTOs(int count) {
+        List<NotificationDTO> notificationDTOs = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            notificationDTOs.add(notificationDTO(i));
+        }
+        return notificationDTOs;
+    }
+
+    private static InputStream ndjson(List<NotificationDTO> notificationDTOs) {
+        StringBuilder lines = new StringBuilder();
+        for (NotificationDTO notificationDTO : notificationDTOs) {
+            lines.append("{\"commenterUsername\":\"").append(notificationDTO.getCommenterUsername())
+                    .append("\",\"bloggerId\":").append(notificationDTO.getBloggerId())
+                    .append(",\"commentId\":").append(notificationDTO.getCommentId())
+                    .append(",\"blogId\":").append(notificationDTO.getBlogId()).append("}\n");
+        }
+        return new ByteArrayInputStream(lines.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    //---CREATE NOTIFICATION---
+    //HAPPY PATH - a resent notification returns the saved one
+    @Test
+    public void testCreateNotificationResentPass() {
+        Notification first = notificationService.createNotification(new NotificationDTO("first", 1, 2, 10));
+        Notification resent = notificationService.createNotification(new NotificationDTO("first", 1, 2, 10));
+
+        assertEquals(first.getId(), resent.getId());
+        assertEquals(1, notificationRepository.count());
+    }
+
+    //HAPPY PATH - saved by a concurrent delivery after the check, the unique comment id rejects the insert
+    @Test
+    public void testCreateNotificationConcurrentDeliveryPass() {
+        Notification first = notificationService.createNotification(new NotificationDTO("first", 1, 2, 10));
+        clearInvocations(notificationRepository);
+        doReturn(null).doReturn(first).when(notificationRepository).findByCommentId(2); //the check doesn't see it yet
+
+        Notification result = notificationService.createNotification(new NotificationDTO("second", 1, 2, 10));
+
+        assertEquals(first.getId(), result.getId());
+        assertEquals("first", result.getCommenterUsername(), "The saved notification should be kept");
+        assertEquals(1, notificationRepository.count());
+        verify(notificationRepository, times(2)).findByCommentId(2); //looked up again after the insert was rejected
+    }
+
+    //SAD PATH - other constraint violations are not hidden
+    @Test
+    public void testCreateNotificationInvalidFail() {
+        assertThrows(DataIntegrityViolationException.class,
+                () -> notificationService.createNotification(new NotificationDTO("x".repeat(300), 1, 2, 10)));
+        assertEquals(0, notificationRepository.count());
+    }
+
+    //---CREATE NOTIFICATIONS (JSON ARRAY)---
+    //HAPPY PATH
+    @Test
+    public void testCreateNotificationsPass() {
+        BatchResultDTO result = notificationService.createNotifications(notificationDTOs(1200)); //three inserts
+
+        assertEquals(new BatchResultDTO(1200, 1200), result);
+        assertEquals(1200, notificationRepository.count());
+        Notification notification = notificationRepository.findByCommentId(700);
+        assertEquals("commenter700", notification.getCommenterUsername());
+        assertEquals(1, notification.getBloggerId());
+        assertEquals(10, notification.getBlogId());
+    }
+
+    //HAPPY PATH - a resent batch creates nothing new
+    @Test
+    public void testCreateNotificationsResentPass() {
+        notificationService.createNotifications(notificationDTOs(3));
+        BatchResultDTO result = notificationService.createNotifications(notificationDTOs(5));
+
+        assertEquals(new BatchResultDTO(5, 2), result);
+        assertEquals(5, notificationRepository.count());
+    }
+
+    //HAPPY PATH - a notification saved by another request after the existing ids were read is skipped by ON CONFLICT
+    @Test
+    public void testCreateNotificationsConflictPass() {
+        notificationService.createNotification(new NotificationDTO("first", 1, 2, 10));
+        doReturn(Set.of()).when(notificationRepository).findExistingCommentIds(any());
+
+        BatchResultDTO result = notificationService.createNotifications(notificationDTOs(3));
+
+        assertEquals(new BatchResultDTO(3, 2), result, "The skipped row should not be reported as created");
+        assertEquals(3, notificationRepository.count());
+        assertEquals("first", notificationRepository.findByCommentId(2).getCommenterUsername(), "The saved notification should be kept");
+    }
+
+    //SAD PATH - an invalid notification saves none of them
+    @Test
+    public void testCreateNotificationsInvalidFail() {
+        List<NotificationDTO> notificationDTOs = notificationDTOs(3);
+        notificationDTOs.get(1).setBlogId(null);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> notificationService.createNotifications(notificationDTOs));
+        assertTrue(e.getMessage().contains("[1]"));
+        assertEquals(0, notificationRepository.count());
+    }
+
+    //---CREATE NOTIFICATIONS (NDJSON)---
+    //HAPPY PATH
+    @Test
+    public void testCreateNotificationsFromStreamPass() throws Exception {
+        BatchResultDTO result = notificationService.createNotifications(ndjson(notificationDTOs(600)));
+
+        assertEquals(new BatchResultDTO(600, 600), result);
+        assertEquals(600, notificationRepository.count());
+        assertEquals("commenter600", notificationRepository.findByCommentId(600).getCommenterUsername());
+    }
+
+    //SAD PATH - an invalid line saves none of them
+    @Test
+    public void testCreateNotificationsFromStreamInvalidLineFail() {
+        InputStream lines = new ByteArrayInputStream(("{\"commenterUsername\":\"a\",\"bloggerId\":1,\"commentId\":1,\"blogId\":10}\n" +
+                "not json\n").getBytes(StandardCharsets.UTF_8));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> notificationService.createNotifications(lines));
+        assertEquals("Line 2 is not a valid notification", e.getMessage());
+        assertEquals(0, notificationRepository.count());
+    }
+
+    //SAD PATH - a row the database rejects in the second insert rolls back the first one too
+    @Test
+    public void testCreateNotificationsFromStreamRolledBack() {
+        List<NotificationDTO> notificationDTOs = notificationDTOs(600);
+        notificationDTOs.get(550).setCommenterUsername("x".repeat(300)); //longer than the column
+
+        assertThrows(Exception.class, () -> notificationService.createNotifications(ndjson(notificationDTOs)));
+        assertEquals(0, notificationRepository.count(), "All notifications are saved or none are");
+    }
+}